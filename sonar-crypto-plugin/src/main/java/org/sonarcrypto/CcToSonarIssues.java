@@ -1,17 +1,19 @@
 package org.sonarcrypto;
 
-import static org.sonarcrypto.utils.sonar.TextUtils.code;
-
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.batch.fs.TextRange;
 import org.sonar.api.batch.sensor.SensorContext;
 import org.sonar.api.batch.sensor.issue.NewIssue;
 import org.sonar.api.batch.sensor.issue.NewIssueLocation;
-import org.sonarcrypto.ccerror.ConvertedError;
-import org.sonarcrypto.utils.cognicrypt.boomerang.SignatureUtils;
+import org.sonarcrypto.ccerror.Finding;
 
 /** Converts CogniCrypt (CryptoAnalysis) errors to SonarQube issues. */
 @NullMarked
@@ -22,55 +24,113 @@ public class CcToSonarIssues {
    * Reports all cryptographic errors found by CogniCrypt as SonarQube issues.
    *
    * @param context the SensorContext to create issues in
-   * @param errors table of errors organized by class and method
+   * @param findings the findings to report
    */
-  public void reportAllIssues(SensorContext context, List<ConvertedError> errors) {
+  public void reportAllIssues(SensorContext context, List<Finding> findings) {
+    final var reporter = newReporter(context);
+    findings.forEach(reporter);
+    reporter.logSummary();
+  }
 
-    for (final var entry : errors) {
-      final var inputFile = entry.inputFile();
-      final var position = entry.position();
-      final var method = entry.method();
-      final var violation = entry.violation();
+  /**
+   * Creates a reporter that saves each finding as an issue as soon as it is passed to it.
+   *
+   * @param context the SensorContext to create issues in
+   * @return the reporter
+   */
+  public Reporter newReporter(SensorContext context) {
+    return new Reporter(context);
+  }
 
-      final var issue = context.newIssue();
+  /**
+   * Saves findings as SonarQube issues, one at a time, and counts them per rule. It is not thread
+   * safe; pass the findings on from a single thread, e.g. from {@link
+   * org.sonarcrypto.ccerror.FindingAggregator#finish()}.
+   */
+  public static class Reporter implements Consumer<Finding> {
+    private final SensorContext context;
+    private final Map<RuleKind, Integer> countsByRule = new EnumMap<>(RuleKind.class);
 
-      final var messageBuilder =
-          new StringBuilder(
-              String.format(
-                  "Cryptographic weakness in method %s detected:%n",
-                  code(SignatureUtils.shortNameOf(method))));
+    Reporter(SensorContext context) {
+      this.context = context;
+    }
+
+    @Override
+    public void accept(Finding finding) {
+      final var inputFile = finding.inputFile();
+      final var position = finding.position();
+
+      final var issue = context.newIssue();
 
       final var location = issue.newLocation().on(inputFile);
 
-      try {
+      // Positions are validated against the file on conversion; without one, the issue is
+      // reported on file level
+      if (position != null) {
         location.at(position);
-      } catch (IllegalArgumentException e) {
-        LOGGER.error("Invalid source code position in file {}!", inputFile, e);
       }
 
-      issue.forRule(violation.getRulesDefinition().getRuleKey());
-
-      if (messageBuilder.length() > NewIssueLocation.MESSAGE_MAX_SIZE) {
-        messageBuilder.setLength(NewIssueLocation.MESSAGE_MAX_SIZE);
+      issue.forRule(finding.ruleKey());
+      location.message(finding.message());
+
+      countsByRule.merge(finding.ruleKind(), 1, Integer::sum);
+      if (LOGGER.isDebugEnabled()) {
+        LOGGER.debug(
+            "{} @ [{}] {}: {} {}",
+            inputFile.filename(),
+            describe(position),
+            finding.ruleKind(),
+            finding.causeType().getSimpleName(),
+            finding.causeValue());
       }
 
-      violation.createMessage(messageBuilder);
-      final var message = messageBuilder.toString();
-      location.message(message);
+      issue.at(location);
 
-      LOGGER.info(
-          "{} @ [{}:{}/{}:{}] {}: {}",
-          inputFile.filename(),
-          position.start().line(),
-          position.start().lineOffset(),
-          position.end().line(),
-          position.end().lineOffset(),
-          violation.getRulesDefinition().getRuleKind(),
-          violation.getCause());
+      for (final var secondary : finding.secondaryLocations()) {
+        issue.addLocation(
+            issue
+                .newLocation()
+                .on(secondary.inputFile())
+                .at(secondary.position())
+                .message(secondary.message()));
+      }
 
-      issue.at(location);
       issue.save();
     }
+
+    /** Logs the number of saved issues per rule, if any issue was saved. */
+    public void logSummary() {
+      if (!countsByRule.isEmpty()) {
+        LOGGER.info(summarize(countsByRule));
+      }
+    }
+  }
+
+  /** Formats the issue counts per rule as a table, one rule per line. */
+  static String summarize(Map<RuleKind, Integer> countsByRule) {
+    final var summary = new StringBuilder("Reported issues per rule:");
+    for (final var entry : countsByRule.entrySet()) {
+      final var ruleKind = entry.getKey();
+      summary
+          .append(System.lineSeparator())
+          .append(
+              String.format(
+                  "  %-5s %-20s %6d", ruleKind.toSQRuleName(), ruleKind, entry.getValue()));
+    }
+    return summary.toString();
+  }
+
+  private static String describe(@Nullable TextRange position) {
+    if (position == null) {
+      return "file";
+    }
+    return position.start().line()
+        + ":"
+        + position.start().lineOffset()
+        + "/"
+        + position.end().line()
+        + ":"
+        + position.end().lineOffset();
   }
 
   /**
@@ -1,12 +1,41 @@
 package org.sonarcrypto;
 
 import java.util.Arrays;
+import java.util.stream.Stream;
 import org.jspecify.annotations.NullMarked;
 import org.sonar.api.Plugin;
+import org.sonar.api.PropertyType;
+import org.sonar.api.config.PropertyDefinition;
+import org.sonarcrypto.utils.cognicrypt.jimple.AnalysisStrategy;
 
 @NullMarked
 public class CryptoPlugin implements Plugin {
 
+  static final String CATEGORY = "Cryptography";
+
+  /**
+   * Analysis strategy for Jimple input; defaults to {@link AnalysisStrategy#STANDARD}, {@link
+   * #AUTO_STRATEGY} selects one by project size.
+   */
+  public static final String ANALYSIS_STRATEGY_KEY = "sonar.crypto.analysisStrategy";
+
+  public static final String AUTO_STRATEGY = "AUTO";
+
+  /** Time budget in seconds used by {@link #AUTO_STRATEGY} to select the analysis strategy. */
+  public static final String TIME_BUDGET_KEY = "sonar.crypto.analysisTimeBudget";
+
+  public static final int DEFAULT_TIME_BUDGET_SECONDS = 600;
+
+  /** Whether the call graph is cached between analyses; disabled by default. */
+  public static final String CALL_GRAPH_CACHE_ENABLED_KEY = "sonar.crypto.callGraphCache";
+
+  /**
+   * Directory in which the call graph is cached between analyses, if enabled; defaults to a
+   * directory per project below the Sonar user home.
+   */
+  public static final String CALL_GRAPH_CACHE_DIRECTORY_KEY =
+      "sonar.crypto.callGraphCacheDirectory";
+
   @Override
   public void define(Context context) {
     Arrays.stream(RuleKind.values())
@@ -15,5 +44,55 @@ public class CryptoPlugin implements Plugin {
 
     context.addExtension(CryptoQualityProfile.class);
     context.addExtension(CryptoSensor.class);
+
+    context.addExtensions(
+        PropertyDefinition.builder(ANALYSIS_STRATEGY_KEY)
+            .name("Analysis strategy")
+            .description(
+                "Call graph strategy for the analysis of Jimple input. "
+                    + AUTO_STRATEGY
+                    + " picks the most precise strategy whose estimated analysis time fits the"
+                    + " time budget.")
+            .category(CATEGORY)
+            .type(PropertyType.SINGLE_SELECT_LIST)
+            .options(
+                Stream.concat(
+                        Stream.of(AUTO_STRATEGY),
+                        Arrays.stream(AnalysisStrategy.values()).map(Enum::name))
+                    .toList())
+            .defaultValue(AnalysisStrategy.STANDARD.name())
+            .onConfigScopes(PropertyDefinition.ConfigScope.PROJECT)
+            .build(),
+        PropertyDefinition.builder(TIME_BUDGET_KEY)
+            .name("Analysis time budget")
+            .description(
+                "Time budget in seconds for the analysis strategy "
+                    + AUTO_STRATEGY
+                    + "; ignored by the other strategies.")
+            .category(CATEGORY)
+            .type(PropertyType.INTEGER)
+            .defaultValue(String.valueOf(DEFAULT_TIME_BUDGET_SECONDS))
+            .onConfigScopes(PropertyDefinition.ConfigScope.PROJECT)
+            .build(),
+        PropertyDefinition.builder(CALL_GRAPH_CACHE_ENABLED_KEY)
+            .name("Call graph cache")
+            .description(
+                "Whether to cache the call graph of Jimple input between analyses. It is reused"
+                    + " only if no Jimple file and no analysis setting has changed.")
+            .category(CATEGORY)
+            .type(PropertyType.BOOLEAN)
+            .defaultValue(String.valueOf(false))
+            .onConfigScopes(PropertyDefinition.ConfigScope.PROJECT)
+            .build(),
+        PropertyDefinition.builder(CALL_GRAPH_CACHE_DIRECTORY_KEY)
+            .name("Call graph cache directory")
+            .description(
+                "Directory in which the call graph of Jimple input is cached between analyses, if"
+                    + " the call graph cache is enabled. Defaults to a directory per project below"
+                    + " the Sonar user home.")
+            .category(CATEGORY)
+            .type(PropertyType.STRING)
+            .onConfigScopes(PropertyDefinition.ConfigScope.PROJECT)
+            .build());
   }
 }
@@ -1,9 +1,7 @@
 package org.sonarcrypto;
 
-import boomerang.scope.Method;
-import boomerang.scope.WrappedClass;
-import com.google.common.collect.Table;
-import crypto.analysis.errors.AbstractError;
+import static org.sonarcrypto.utils.sonar.TextUtils.quote;
+
 import de.fraunhofer.iem.scanner.HeadlessJavaScanner;
 import de.fraunhofer.iem.scanner.ScannerSettings;
 import java.io.File;
@@ -11,9 +9,13 @@ import java.io.IOException;
 import java.net.URISyntaxException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Set;
+import java.util.Locale;
+import java.util.function.Consumer;
 import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.sonar.api.batch.Phase;
@@ -21,12 +23,19 @@ import org.sonar.api.batch.fs.FileSystem;
 import org.sonar.api.batch.sensor.Sensor;
 import org.sonar.api.batch.sensor.SensorContext;
 import org.sonar.api.batch.sensor.SensorDescriptor;
+import org.sonar.api.config.Configuration;
 import org.sonarcrypto.ccerror.CcErrorConverter;
-import org.sonarcrypto.ccerror.ConvertedError;
+import org.sonarcrypto.ccerror.Finding;
+import org.sonarcrypto.ccerror.FindingAggregator;
+import org.sonarcrypto.ccerror.StreamingErrorConverter;
+import org.sonarcrypto.utils.cognicrypt.crysl.CryptoLibraryDetector;
 import org.sonarcrypto.utils.cognicrypt.crysl.CryslRuleProvider;
 import org.sonarcrypto.utils.cognicrypt.crysl.Ruleset;
 import org.sonarcrypto.utils.cognicrypt.crysl.RulesetPaths;
+import org.sonarcrypto.utils.cognicrypt.jimple.AnalysisStrategy;
+import org.sonarcrypto.utils.cognicrypt.jimple.InputMetrics;
 import org.sonarcrypto.utils.cognicrypt.jimple.JimpleScanner;
+import org.sonarcrypto.utils.cognicrypt.jimple.ReferencedTypes;
 import org.sonarcrypto.utils.maven.MavenBuildException;
 import org.sonarcrypto.utils.maven.MavenProject;
 
@@ -35,7 +44,33 @@ import org.sonarcrypto.utils.maven.MavenProject;
 public class CryptoSensor implements Sensor {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(CryptoSensor.class);
-  private final CcToSonarIssues issueReporter = new CcToSonarIssues();
+  private static final String SONAR_USER_HOME_KEY = "sonar.userHome";
+  private static final String PROJECT_KEY_KEY = "sonar.projectKey";
+  private final CcToSonarIssues issueReporter;
+
+  /** Loads the rulesets to scan a project with. */
+  @FunctionalInterface
+  protected interface RulesLoader {
+    /**
+     * @param classPath The resolved class path of the project, or null if unknown
+     * @param referencedTypes The types the application refers to, or null if unknown
+     * @return The rulesets, at least one
+     * @throws IOException If the rulesets could not be loaded; the error is logged
+     */
+    List<RulesetPaths> load(@Nullable String classPath, @Nullable ReferencedTypes referencedTypes)
+        throws IOException;
+  }
+
+  public CryptoSensor() {
+    this(new CcToSonarIssues());
+  }
+
+  /**
+   * @param issueReporter Saves the findings as issues
+   */
+  CryptoSensor(CcToSonarIssues issueReporter) {
+    this.issueReporter = issueReporter;
+  }
 
   @Override
   public void describe(SensorDescriptor sensorDescriptor) {
@@ -43,10 +78,9 @@ public class CryptoSensor implements Sensor {
     sensorDescriptor.onlyOnLanguages("java");
   }
 
-  protected RulesetPaths extractRules() throws IOException {
-    final Ruleset ruleset = Ruleset.JCA_BC_JCA;
+  private static RulesetPaths extractRules(Ruleset ruleset) throws IOException {
     try {
-      return new CryslRuleProvider().extractRulesetToTempDir(ruleset);
+      return new CryslRuleProvider().provideRuleset(ruleset);
     } catch (IOException | URISyntaxException e) {
       final var message =
           String.format(
@@ -56,19 +90,58 @@ public class CryptoSensor implements Sensor {
     }
   }
 
-  protected List<ConvertedError> scan(FileSystem fileSystem, RulesetPaths extractedRules) {
-    Table<WrappedClass, Method, Set<AbstractError>> errors;
+  /**
+   * Scans the project.
+   *
+   * @param rulesLoader Loads the rulesets for the class path and referenced types of the project
+   * @param strategyOverride The analysis strategy for Jimple input, or null to select one that fits
+   *     the time budget
+   * @param timeBudget The time budget for the automatic strategy selection
+   * @param callGraphCacheDirectory The directory to cache the call graph of Jimple input in between
+   *     analyses, or null to disable caching
+   * @param sink Receives the findings while the analysis runs
+   */
+  protected void scan(
+      FileSystem fileSystem,
+      RulesLoader rulesLoader,
+      @Nullable AnalysisStrategy strategyOverride,
+      Duration timeBudget,
+      @Nullable Path callGraphCacheDirectory,
+      Consumer<Finding> sink) {
+    StreamingErrorConverter errorConverter;
     Path jimpleDir = fileSystem.workDir().toPath().resolve("bridge-output/jimple");
     String mavenProjectPath = fileSystem.baseDir().getAbsolutePath();
     if (hasJimpleFiles(jimpleDir)) {
       LOGGER.info(
           "Using Jimple files from bridge output ({}) as analysis input.",
           jimpleDir.toAbsolutePath());
-      var scanner = new JimpleScanner(jimpleDir.toString(), extractedRules.rulesetZip().toString());
-      scanner.setAddClassPath(
-          resolveAnalysisClassPath(mavenProjectPath, extractedRules.dependencyClasspath()));
+      final var projectClassPath = resolveProjectClassPath(mavenProjectPath);
+      var scanner = new JimpleScanner(jimpleDir.toString());
+      // The strategy determines the view the referenced types are collected from
+      final var strategy = selectStrategy(jimpleDir, strategyOverride, timeBudget);
+      scanner.setAnalysisStrategy(strategy);
+      final List<RulesetPaths> rules;
+      try {
+        rules = rulesLoader.load(projectClassPath, scanner.getReferencedTypes());
+      } catch (IOException e) {
+        // Logging is done by the loader.
+        return;
+      }
+      rules.forEach(it -> scanner.addRuleset(it.rulesetZip().toString()));
+      scanner.setAddClassPath(joinClassPaths(dependencyClassPath(rules), projectClassPath));
+      scanner.setCallGraphCacheDirectory(callGraphCacheDirectory);
+      errorConverter =
+          new StreamingErrorConverter(
+              new CcErrorConverter(
+                  fileSystem, className -> scanner.getSourceFileName(className).orElse(null)),
+              sink);
+      scanner.addErrorListener(errorConverter);
+      final var start = System.nanoTime();
       scanner.scan();
-      errors = scanner.getCollectedErrors();
+      LOGGER.info(
+          "Analysis with strategy {} took {}.",
+          strategy,
+          Duration.ofNanos(System.nanoTime() - start));
     } else {
       LOGGER.info(
           "No Jimple files found at {}. Compiling project at {} as analysis input.",
@@ -80,37 +153,161 @@ public class CryptoSensor implements Sensor {
         mi.compile();
       } catch (IOException | MavenBuildException e) {
         LOGGER.error("Failed to build Maven project", e);
-        return List.of(/* Empty */ );
+        return;
+      }
+      final List<RulesetPaths> rules;
+      try {
+        // The class files are only read by the analysis, so libraries are detected on the class
+        // path; compiled input is analyzed with the first ruleset only anyway
+        rules = rulesLoader.load(mi.getFullClassPath(), null);
+      } catch (IOException e) {
+        // Logging is done by the loader.
+        return;
+      }
+      if (rules.size() > 1) {
+        LOGGER.warn(
+            "Compiled input is analyzed with a single ruleset; ignoring {} further rulesets.",
+            rules.size() - 1);
       }
       HeadlessJavaScanner scanner =
-          new HeadlessJavaScanner(mi.getBuildDirectory(), extractedRules.rulesetZip().toString());
+          new HeadlessJavaScanner(mi.getBuildDirectory(), rules.get(0).rulesetZip().toString());
       scanner.setFramework(ScannerSettings.Framework.SOOT_UP);
       scanner.setAddClassPath(
-          joinClassPaths(extractedRules.dependencyClasspath(), mi.getFullClassPath()));
+          joinClassPaths(rules.get(0).dependencyClasspath(), mi.getFullClassPath()));
+      errorConverter = new StreamingErrorConverter(new CcErrorConverter(fileSystem), sink);
+      scanner.addErrorListener(errorConverter);
       scanner.scan();
-      errors = scanner.getCollectedErrors();
     }
 
-    return new CcErrorConverter(fileSystem).convertErrors(errors);
+    errorConverter.finish();
   }
 
-  protected void report(SensorContext sensorContext, List<ConvertedError> errors) {
-    LOGGER.info("Found {} cryptographic errors", errors.size());
-    issueReporter.reportAllIssues(sensorContext, errors);
+  /**
+   * Selects the rulesets for the crypto libraries the project uses and extracts them.
+   *
+   * @param classPath The resolved class path of the project, or null if unknown
+   * @param referencedTypes The types the application refers to, or null if unknown
+   * @return The extracted rulesets, starting with the JCA ruleset
+   * @throws IOException If a ruleset could not be extracted; the error is logged
+   */
+  protected List<RulesetPaths> selectRules(
+      @Nullable String classPath, @Nullable ReferencedTypes referencedTypes) throws IOException {
+    final var libraries = CryptoLibraryDetector.detect(classPath, referencedTypes);
+    final var rulesets = CryptoLibraryDetector.selectRulesets(libraries);
+    LOGGER.info("Detected crypto libraries {}, using rulesets {}.", libraries, rulesets);
+
+    final var rules = new ArrayList<RulesetPaths>();
+    for (final var ruleset : rulesets) {
+      rules.add(extractRules(ruleset));
+    }
+    return rules;
   }
 
   @Override
   public void execute(SensorContext sensorContext) {
-    final RulesetPaths ruleDir;
+    final var config = sensorContext.config();
+    // Errors are converted and merged while the analysis runs, so that only the merged findings
+    // are held until they are saved
+    final var reporter = issueReporter.newReporter(sensorContext);
+    final var aggregator = new FindingAggregator(reporter);
+    scan(
+        sensorContext.fileSystem(),
+        this::selectRules,
+        strategyOverride(config),
+        timeBudget(config),
+        callGraphCacheDirectory(config),
+        aggregator);
+    aggregator.finish();
+    LOGGER.info(
+        "Found {} cryptographic errors, reported as {} issues",
+        aggregator.getFindingCount(),
+        aggregator.getMisuseCount());
+    reporter.logSummary();
+  }
+
+  private static @Nullable AnalysisStrategy strategyOverride(Configuration config) {
+    final var value =
+        config
+            .get(CryptoPlugin.ANALYSIS_STRATEGY_KEY)
+            .orElse(AnalysisStrategy.STANDARD.name())
+            .trim()
+            .toUpperCase(Locale.ROOT);
+    if (value.equals(CryptoPlugin.AUTO_STRATEGY)) {
+      return null;
+    }
+    try {
+      return AnalysisStrategy.valueOf(value);
+    } catch (IllegalArgumentException e) {
+      LOGGER.warn(
+          "Unknown analysis strategy {}, using {}.", quote(value), AnalysisStrategy.STANDARD);
+      return AnalysisStrategy.STANDARD;
+    }
+  }
+
+  private static Duration timeBudget(Configuration config) {
+    return Duration.ofSeconds(
+        config
+            .getInt(CryptoPlugin.TIME_BUDGET_KEY)
+            .orElse(CryptoPlugin.DEFAULT_TIME_BUDGET_SECONDS));
+  }
+
+  /**
+   * Returns the configured call graph cache directory, or a directory per project below the Sonar
+   * user home. Unlike the working directory, which is cleaned before each analysis, it persists
+   * between analyses.
+   *
+   * @return The directory, or null if the call graph cache is not enabled
+   */
+  static @Nullable Path callGraphCacheDirectory(Configuration config) {
+    if (!config.getBoolean(CryptoPlugin.CALL_GRAPH_CACHE_ENABLED_KEY).orElse(false)) {
+      return null;
+    }
+    final var configured = config.get(CryptoPlugin.CALL_GRAPH_CACHE_DIRECTORY_KEY);
+    if (configured.isPresent() && !configured.get().isBlank()) {
+      return Path.of(configured.get().trim());
+    }
+    final var userHome =
+        config
+            .get(SONAR_USER_HOME_KEY)
+            .map(Path::of)
+            .orElseGet(() -> Path.of(System.getProperty("user.home"), ".sonar"));
+    final var projectKey = config.get(PROJECT_KEY_KEY).orElse("default");
+    return userHome
+        .resolve("crypto")
+        .resolve("callgraph-cache")
+        .resolve(projectKey.replaceAll("[^A-Za-z0-9._-]", "_"));
+  }
+
+  private static AnalysisStrategy selectStrategy(
+      Path jimpleDir, @Nullable AnalysisStrategy strategyOverride, Duration timeBudget) {
+    if (strategyOverride != null) {
+      LOGGER.info(
+          "Using analysis strategy {} as configured by {}.",
+          strategyOverride,
+          CryptoPlugin.ANALYSIS_STRATEGY_KEY);
+      return strategyOverride;
+    }
 
+    final InputMetrics metrics;
     try {
-      ruleDir = extractRules();
+      metrics = InputMetrics.measure(jimpleDir);
     } catch (IOException e) {
-      // Logging is done by `extractRules`.
-      return;
+      LOGGER.warn(
+          "Failed to measure the Jimple input, using analysis strategy {}.",
+          AnalysisStrategy.STANDARD,
+          e);
+      return AnalysisStrategy.STANDARD;
     }
 
-    report(sensorContext, scan(sensorContext.fileSystem(), ruleDir));
+    final var strategy = AnalysisStrategy.select(metrics, timeBudget);
+    LOGGER.info(
+        "Selected analysis strategy {} for {} classes with {} methods: estimated {} within a time budget of {}.",
+        strategy,
+        metrics.classCount(),
+        metrics.methodCount(),
+        strategy.estimate(metrics),
+        timeBudget);
+    return strategy;
   }
 
   private static boolean hasJimpleFiles(Path jimpleDir) {
@@ -124,22 +321,26 @@ public class CryptoSensor implements Sensor {
     }
   }
 
-  private static String resolveAnalysisClassPath(
-      String mavenProjectPath, String rulesetDependencyClasspath) {
+  private static @Nullable String resolveProjectClassPath(String mavenProjectPath) {
     try {
       var mavenProject = new MavenProject(mavenProjectPath);
       mavenProject.compile();
-      return joinClassPaths(rulesetDependencyClasspath, mavenProject.getFullClassPath());
+      return mavenProject.getFullClassPath();
     } catch (IOException | MavenBuildException e) {
       LOGGER.warn(
           "Failed to resolve Maven dependency classpath for {}. Falling back to ruleset dependencies only.",
           mavenProjectPath,
           e);
-      return rulesetDependencyClasspath;
+      return null;
     }
   }
 
-  private static String joinClassPaths(String... classPaths) {
+  private static String dependencyClassPath(List<RulesetPaths> rules) {
+    return joinClassPaths(
+        rules.stream().map(RulesetPaths::dependencyClasspath).toArray(String[]::new));
+  }
+
+  private static String joinClassPaths(@Nullable String... classPaths) {
     final var joiner = new StringBuilder();
 
     for (var classPath : classPaths) {
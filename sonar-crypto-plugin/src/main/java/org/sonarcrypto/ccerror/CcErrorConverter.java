@@ -1,14 +1,26 @@
 package org.sonarcrypto.ccerror;
 
-import static org.sonarcrypto.utils.sonar.SonarFileSystemUtils.findInputFile;
-
 import boomerang.scope.Method;
+import boomerang.scope.Statement;
 import boomerang.scope.WrappedClass;
-import com.google.common.collect.Table;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import crypto.analysis.AnalysisSeedWithSpecification;
+import crypto.analysis.IAnalysisSeed;
 import crypto.analysis.errors.*;
+import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.sonar.api.batch.fs.FileSystem;
@@ -26,76 +38,178 @@ import org.sonarcrypto.ccerror.converters.ordererror.TypestateErrorConverter;
 import org.sonarcrypto.ccerror.violations.CallViolation;
 import org.sonarcrypto.ccerror.violations.Violation;
 import org.sonarcrypto.utils.cognicrypt.crysl.ConverterUtils;
+import org.sonarcrypto.utils.sonar.InputFileIndex;
+import org.sonarcrypto.utils.sonar.LineTable;
 
 @NullMarked
 public class CcErrorConverter {
   private static final Logger LOGGER = LoggerFactory.getLogger(CcErrorConverter.class);
 
+  /** The maximum number of preceding errors located for a single error. */
+  static final int MAX_PRECEDING_LOCATIONS = 20;
+
+  /** The maximum number of calls on the object of an error located for a single error. */
+  static final int MAX_CALL_LOCATIONS = 20;
+
   private final FileSystem fileSystem;
+  private final Function<String, @Nullable String> sourceFileNames;
+  private final Supplier<InputFileIndex> inputFiles;
+  private final Map<InputFile, LineTable> lineTables = new ConcurrentHashMap<>();
+  private final Set<String> unresolvedClassNames = ConcurrentHashMap.newKeySet();
 
   public CcErrorConverter(FileSystem fileSystem) {
+    this(fileSystem, className -> null);
+  }
+
+  /**
+   * @param sourceFileNames Provides the source file name of a class by its fully qualified name,
+   *     used to find the input file of classes not declared in a file of their own name
+   */
+  public CcErrorConverter(
+      FileSystem fileSystem, Function<String, @Nullable String> sourceFileNames) {
     this.fileSystem = fileSystem;
+    this.sourceFileNames = sourceFileNames;
+    this.inputFiles = Suppliers.memoize(() -> InputFileIndex.of(fileSystem));
   }
 
   public FileSystem getFileSystem() {
     return this.fileSystem;
   }
 
-  public ArrayList<ConvertedError> convertErrors(
-      Table<WrappedClass, Method, Set<AbstractError>> issuesFromCC) {
-    FileSystem fileSystem = this.fileSystem;
+  /**
+   * Finds the input file corresponding to a class. A class without input file is logged once.
+   *
+   * @return the input file, or null if not found
+   */
+  @Nullable
+  InputFile findInputFile(WrappedClass wrappedClass) {
+    String className = wrappedClass.getFullyQualifiedName();
+    InputFile inputFile = inputFiles.get().find(className, sourceFileNames.apply(className));
+    if (inputFile == null && unresolvedClassNames.add(className)) {
+      LOGGER.error("Could not find source file for class: {}", className);
+    }
+    return inputFile;
+  }
 
-    final var violations = new ArrayList<ConvertedError>();
+  /** Converts an error in the given input file. */
+  ConvertedError convert(InputFile inputFile, Method method, AbstractError error) {
+    final var lines = lineTables.computeIfAbsent(inputFile, CcErrorConverter::readLineTable);
+    return new ConvertedError(
+        inputFile,
+        ConverterUtils.selectLocation(inputFile, lines, error),
+        method,
+        convertError(error));
+  }
 
-    for (Table.Cell<WrappedClass, Method, Set<AbstractError>> cell : issuesFromCC.cellSet()) {
-      WrappedClass wrappedClass = cell.getRowKey();
-      Method method = cell.getColumnKey();
-      Set<AbstractError> errors = cell.getValue();
+  /**
+   * Locates the errors preceding an error, transitively and nearest first. Preceding errors in
+   * classes without input file or on invalid lines are skipped.
+   *
+   * @return the locations, at most {@link #MAX_PRECEDING_LOCATIONS}
+   */
+  List<FindingLocation> precedingLocations(AbstractError error) {
+    if (error.getPrecedingErrors().isEmpty()) {
+      return List.of();
+    }
 
-      // Find the InputFile corresponding to this class
-      InputFile inputFile = findInputFile(fileSystem, wrappedClass);
-      if (inputFile == null) {
-        LOGGER.error(
-            "Could not find source file for class: {}", wrappedClass.getFullyQualifiedName());
+    final var locations = new ArrayList<FindingLocation>();
+    final Set<AbstractError> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+    visited.add(error);
+    final var pending = new ArrayDeque<>(error.getPrecedingErrors());
+    while (!pending.isEmpty() && locations.size() < MAX_PRECEDING_LOCATIONS) {
+      final var preceding = pending.poll();
+      if (!visited.add(preceding)) {
         continue;
       }
+      pending.addAll(preceding.getPrecedingErrors());
 
-      final var overriddenErrors = new ArrayList<AbstractError>(errors.size());
-      var atLeastOneErrorConverted = false;
-
-      // Report each error in this class/method
-      for (AbstractError error : errors) {
-        if (!atLeastOneErrorConverted && !error.getPrecedingErrors().isEmpty()) {
-          // Ignore preceding errors
-          overriddenErrors.add(error);
-          continue;
-        }
+      final var location = locate(preceding);
+      if (location != null) {
+        locations.add(location);
+      }
+    }
+    return locations;
+  }
 
-        violations.add(
-            new ConvertedError(
-                inputFile,
-                ConverterUtils.selectLocation(inputFile, error),
-                method,
-                convertError(error)));
+  /**
+   * Locates the data flow of the object an error is about: the statement creating it and, for
+   * errors in the order of calls, the calls on it, ordered by line. Statements in classes without
+   * input file or on invalid lines are skipped.
+   *
+   * @return the locations, empty if the error is not about an object
+   */
+  List<FindingLocation> dataFlowLocations(AbstractError error) {
+    final @Nullable IAnalysisSeed seed = error.getSeed();
+    if (seed == null) {
+      return List.of();
+    }
 
-        atLeastOneErrorConverted = true;
-      }
+    final var locations = new ArrayList<FindingLocation>();
+    final var seedWithSpec = seed instanceof AnalysisSeedWithSpecification it ? it : null;
+    final var creation =
+        locate(
+            seed.getOrigin(),
+            FindingMessages.creationMessage(
+                seedWithSpec == null ? null : seedWithSpec.getSpecification().getClassName()));
+    if (creation != null) {
+      locations.add(creation);
+    }
 
-      if (!atLeastOneErrorConverted) {
-        // Report overridden errors if no other error was reported,
-        // just in case that we do not miss any.
-        for (final var error : overriddenErrors) {
-          violations.add(
-              new ConvertedError(
-                  inputFile,
-                  ConverterUtils.selectLocation(inputFile, error),
-                  method,
-                  convertError(error)));
+    if (seedWithSpec != null
+        && (error instanceof TypestateError || error instanceof IncompleteOperationError)) {
+      final var calls =
+          seedWithSpec.getAllCallsOnObject().entrySet().stream()
+              .sorted(
+                  Comparator.comparingInt(call -> call.getKey().getStart().getStartLineNumber()))
+              .limit(MAX_CALL_LOCATIONS)
+              .toList();
+      for (final var call : calls) {
+        final var location =
+            locate(call.getKey().getStart(), FindingMessages.callMessage(call.getValue()));
+        if (location != null) {
+          locations.add(location);
         }
       }
     }
+    return locations;
+  }
+
+  private @Nullable FindingLocation locate(Statement stmt, String message) {
+    final var inputFile = findInputFile(stmt.getMethod().getDeclaringClass());
+    if (inputFile == null) {
+      return null;
+    }
+    final var lines = lineTables.computeIfAbsent(inputFile, CcErrorConverter::readLineTable);
+    final var position = ConverterUtils.selectLocation(inputFile, lines, stmt);
+    if (position == null) {
+      return null;
+    }
+    return new FindingLocation(inputFile, position, message);
+  }
+
+  private @Nullable FindingLocation locate(AbstractError error) {
+    final var inputFile = findInputFile(error.getErrorStatement().getMethod().getDeclaringClass());
+    if (inputFile == null) {
+      return null;
+    }
+    final var lines = lineTables.computeIfAbsent(inputFile, CcErrorConverter::readLineTable);
+    final var position = ConverterUtils.selectLocation(inputFile, lines, error);
+    if (position == null) {
+      return null;
+    }
 
-    return violations;
+    return new FindingLocation(
+        inputFile, position, FindingMessages.precedingMessage(convertError(error)));
+  }
+
+  private static LineTable readLineTable(InputFile inputFile) {
+    try {
+      return LineTable.of(inputFile);
+    } catch (IOException e) {
+      LOGGER.warn(
+          "Could not read source file {}, reporting its issues on file level", inputFile, e);
+      return LineTable.of("");
+    }
   }
 
   private Violation convertError(AbstractError error) {
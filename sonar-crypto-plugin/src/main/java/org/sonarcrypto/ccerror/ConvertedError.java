@@ -2,10 +2,17 @@ package org.sonarcrypto.ccerror;
 
 import boomerang.scope.Method;
 import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
 import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.batch.fs.TextRange;
 import org.sonarcrypto.ccerror.violations.Violation;
 
+/**
+ * An error converted for reporting.
+ *
+ * @param position the location of the error in the file, or null if it can only be reported on
+ *     file level
+ */
 @NullMarked
 public record ConvertedError(
-    InputFile inputFile, TextRange position, Method method, Violation violation) {}
+    InputFile inputFile, @Nullable TextRange position, Method method, Violation violation) {}
@@ -0,0 +1,69 @@
+package org.sonarcrypto.ccerror;
+
+import java.util.List;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.batch.fs.TextRange;
+import org.sonar.api.rule.RuleKey;
+import org.sonarcrypto.RuleKind;
+import org.sonarcrypto.ccerror.causes.Cause;
+import org.sonarcrypto.ccerror.causes.CauseValues;
+import org.sonarcrypto.cryptorules.CryptoRulesDefinition;
+
+/**
+ * A finding ready to be reported as an issue.
+ *
+ * <p>Unlike {@link ConvertedError}, a finding is detached from the analysis: it holds no Boomerang
+ * method and no violation whose cause references analysis objects, only strings, the range and the
+ * rule. Keeping only findings lets the call graph, the view and the CryptoAnalysis errors be
+ * garbage collected before SonarQube persists the issues.
+ *
+ * @param position the location in the file, or null to report the finding on file level
+ * @param message the issue message
+ * @param causeType the type of the violation's cause
+ * @param causeValue the characteristic value of the cause, see {@link CauseValues#getValue}
+ * @param secondaryLocations related locations, e.g. of the errors preceding this one
+ */
+@NullMarked
+public record Finding(
+    InputFile inputFile,
+    @Nullable TextRange position,
+    CryptoRulesDefinition rulesDefinition,
+    String message,
+    Class<? extends Cause> causeType,
+    @Nullable String causeValue,
+    List<FindingLocation> secondaryLocations) {
+
+  /** Creates the finding of a converted error, building its message. */
+  public static Finding of(ConvertedError error) {
+    return of(error, List.of());
+  }
+
+  /** Creates the finding of a converted error with secondary locations, building its message. */
+  public static Finding of(ConvertedError error, List<FindingLocation> secondaryLocations) {
+    final var violation = error.violation();
+    return new Finding(
+        error.inputFile(),
+        error.position(),
+        violation.getRulesDefinition(),
+        FindingMessages.issueMessage(error.method(), violation),
+        violation.getCause().getClass(),
+        CauseValues.getValue(violation.getCause()),
+        secondaryLocations);
+  }
+
+  /** Returns a copy of this finding with other secondary locations. */
+  public Finding withSecondaryLocations(List<FindingLocation> secondaryLocations) {
+    return new Finding(
+        inputFile, position, rulesDefinition, message, causeType, causeValue, secondaryLocations);
+  }
+
+  public RuleKind ruleKind() {
+    return rulesDefinition.getRuleKind();
+  }
+
+  public RuleKey ruleKey() {
+    return rulesDefinition.getRuleKey();
+  }
+}
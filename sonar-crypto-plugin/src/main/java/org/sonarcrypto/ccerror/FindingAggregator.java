@@ -0,0 +1,133 @@
+package org.sonarcrypto.ccerror;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+import org.sonar.api.batch.fs.TextRange;
+import org.sonar.api.rule.RuleKey;
+import org.sonarcrypto.ccerror.causes.Cause;
+
+/**
+ * Merges findings that report the same misuse into a single finding.
+ *
+ * <p>CryptoAnalysis reports an error per seed and call context, so a misuse in a helper method
+ * called from many places is found many times. Findings of the same rule and cause at the same
+ * position are merged into the first of them. The secondary locations of all merged findings, e.g.
+ * the objects created at the call sites and their preceding errors, are kept without duplicates and
+ * up to {@link #MAX_SECONDARY_LOCATIONS}.
+ *
+ * <p>Findings are merged as they stream in, but only passed on by {@link #finish()}, since an issue
+ * cannot be changed once it is saved. Only the detached findings are held until then, one per
+ * misuse, not the analysis objects they were converted from.
+ */
+@NullMarked
+public final class FindingAggregator implements Consumer<Finding> {
+  /** The maximum number of secondary locations of a merged finding. */
+  static final int MAX_SECONDARY_LOCATIONS = 50;
+
+  private final Consumer<Finding> downstream;
+  private final Map<Key, Misuse> misuses = new LinkedHashMap<>();
+  private int findingCount;
+
+  /**
+   * @param downstream Receives the merged finding of each misuse
+   */
+  public FindingAggregator(Consumer<Finding> downstream) {
+    this.downstream = downstream;
+  }
+
+  @Override
+  public synchronized void accept(Finding finding) {
+    findingCount++;
+    final var key = Key.of(finding);
+    final var misuse = misuses.get(key);
+    if (misuse == null) {
+      misuses.put(key, new Misuse(finding));
+    } else {
+      misuse.merge(finding);
+    }
+  }
+
+  /**
+   * Passes on the merged findings, in the order in which their misuses were first found. Call it
+   * once, after the last finding.
+   */
+  public synchronized void finish() {
+    misuses.values().forEach(misuse -> downstream.accept(misuse.toFinding()));
+  }
+
+  /** Returns the number of findings received. */
+  public synchronized int getFindingCount() {
+    return findingCount;
+  }
+
+  /** Returns the number of distinct misuses found. */
+  public synchronized int getMisuseCount() {
+    return misuses.size();
+  }
+
+  /** The first finding of a misuse and the secondary locations of all of its findings. */
+  private static final class Misuse {
+    private final Finding first;
+    private final Set<FindingLocation> locations = new LinkedHashSet<>();
+
+    Misuse(Finding first) {
+      this.first = first;
+      addLocations(first);
+    }
+
+    void merge(Finding finding) {
+      addLocations(finding);
+    }
+
+    private void addLocations(Finding finding) {
+      for (final var location : finding.secondaryLocations()) {
+        if (locations.size() == MAX_SECONDARY_LOCATIONS) {
+          return;
+        }
+        locations.add(location);
+      }
+    }
+
+    Finding toFinding() {
+      if (locations.size() == first.secondaryLocations().size()) {
+        // Nothing was merged into the first finding
+        return first;
+      }
+      return first.withSecondaryLocations(List.copyOf(locations));
+    }
+  }
+
+  /**
+   * The identity of a misuse: the rule, the position of the error statement and the cause. Text
+   * ranges are compared by their bounds; findings on file level have no position.
+   */
+  private record Key(
+      RuleKey ruleKey,
+      String inputFileKey,
+      int startLine,
+      int startLineOffset,
+      int endLine,
+      int endLineOffset,
+      Class<? extends Cause> causeType,
+      @Nullable String causeValue) {
+
+    static Key of(Finding finding) {
+      final @Nullable TextRange position = finding.position();
+      return new Key(
+          finding.ruleKey(),
+          finding.inputFile().key(),
+          position == null ? 0 : position.start().line(),
+          position == null ? 0 : position.start().lineOffset(),
+          position == null ? 0 : position.end().line(),
+          position == null ? 0 : position.end().lineOffset(),
+          finding.causeType(),
+          finding.causeValue());
+    }
+  }
+}
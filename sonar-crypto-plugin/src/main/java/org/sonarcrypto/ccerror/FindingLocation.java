@@ -0,0 +1,15 @@
+package org.sonarcrypto.ccerror;
+
+import org.jspecify.annotations.NullMarked;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.batch.fs.TextRange;
+
+/**
+ * A secondary location of a {@link Finding}, e.g. a preceding error that caused it. Like the
+ * finding, it is detached from the analysis.
+ *
+ * @param position the location in the file
+ * @param message the message shown at the location
+ */
+@NullMarked
+public record FindingLocation(InputFile inputFile, TextRange position, String message) {}
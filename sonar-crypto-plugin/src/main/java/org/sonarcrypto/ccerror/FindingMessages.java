@@ -0,0 +1,76 @@
+package org.sonarcrypto.ccerror;
+
+import static org.sonarcrypto.utils.sonar.TextUtils.code;
+
+import boomerang.scope.DeclaredMethod;
+import boomerang.scope.Method;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+import org.sonar.api.batch.sensor.issue.NewIssueLocation;
+import org.sonarcrypto.ccerror.violations.Violation;
+import org.sonarcrypto.utils.cognicrypt.boomerang.SignatureUtils;
+
+/**
+ * Builds the messages of findings and their secondary locations.
+ *
+ * <p>Every message is built in a buffer reused per thread and truncated once, after the violation
+ * has appended its part, to {@link NewIssueLocation#MESSAGE_MAX_SIZE}.
+ */
+@NullMarked
+public final class FindingMessages {
+  private static final String WEAKNESS_PREFIX = "Cryptographic weakness in method ";
+  private static final String WEAKNESS_SUFFIX = " detected:" + System.lineSeparator();
+  private static final String PRECEDING_PREFIX = "Preceding error: ";
+  private static final String CREATION_SUFFIX = " object created here";
+  private static final String CALL_PREFIX = "Call of ";
+  private static final int INITIAL_CAPACITY = 256;
+
+  private static final ThreadLocal<StringBuilder> BUFFER =
+      ThreadLocal.withInitial(() -> new StringBuilder(INITIAL_CAPACITY));
+
+  private FindingMessages() {}
+
+  /** Builds the message of an issue for a violation in the given method. */
+  public static String issueMessage(Method method, Violation violation) {
+    final var builder = buffer();
+    builder
+        .append(WEAKNESS_PREFIX)
+        .append(code(SignatureUtils.shortNameOf(method)))
+        .append(WEAKNESS_SUFFIX);
+    violation.createMessage(builder);
+    return build(builder);
+  }
+
+  /** Builds the message of a secondary location for a preceding violation. */
+  public static String precedingMessage(Violation violation) {
+    final var builder = buffer().append(PRECEDING_PREFIX);
+    violation.createMessage(builder);
+    return build(builder);
+  }
+
+  /**
+   * Builds the message of a secondary location for the creation of the object of an error.
+   *
+   * @param className the fully qualified name of the object's class, or null if unknown
+   */
+  public static String creationMessage(@Nullable String className) {
+    return className == null
+        ? "Object created here"
+        : code(SignatureUtils.shortNameOf(className)) + CREATION_SUFFIX;
+  }
+
+  /** Builds the message of a secondary location for a call on the object of an error. */
+  public static String callMessage(DeclaredMethod method) {
+    return CALL_PREFIX + code(SignatureUtils.shortNameOf(method));
+  }
+
+  private static StringBuilder buffer() {
+    final var builder = BUFFER.get();
+    builder.setLength(0);
+    return builder;
+  }
+
+  private static String build(StringBuilder builder) {
+    return builder.substring(0, Math.min(builder.length(), NewIssueLocation.MESSAGE_MAX_SIZE));
+  }
+}
@@ -0,0 +1,84 @@
+package org.sonarcrypto.ccerror;
+
+import boomerang.scope.Method;
+import crypto.analysis.errors.AbstractError;
+import crypto.listener.IErrorListener;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import org.jspecify.annotations.NullMarked;
+import org.sonar.api.batch.fs.InputFile;
+
+/**
+ * Converts the errors of a CryptoAnalysis scan while the analysis runs, and passes each finding on
+ * as soon as it is known to be reported.
+ *
+ * <p>Register it with {@code CryptoScanner.addErrorListener} before scanning, and call {@link
+ * #finish()} once the scan is done. Each error is converted to a detached {@link Finding} as soon
+ * as it is reported. An error with preceding errors is only reported if its method has no other
+ * error, so its finding is held back until another error of the method is reported, which drops
+ * it, or until the scan finishes. Methods are tracked by their signature, so that no Boomerang
+ * objects outlive the error that is being reported. The data flow of the object an error is about
+ * and the preceding errors of the error become secondary locations of its finding.
+ */
+@NullMarked
+public class StreamingErrorConverter implements IErrorListener {
+  private final CcErrorConverter converter;
+  private final Consumer<Finding> sink;
+  private final Set<String> reportingMethods = new HashSet<>();
+  private final Map<String, List<Finding>> heldBackByMethod = new LinkedHashMap<>();
+
+  /**
+   * @param sink Receives the findings to report
+   */
+  public StreamingErrorConverter(CcErrorConverter converter, Consumer<Finding> sink) {
+    this.converter = converter;
+    this.sink = sink;
+  }
+
+  /**
+   * Converts an error on the reporting thread. Only the bookkeeping of the reporting methods and
+   * the passing on of the finding are synchronized, so that errors reported by several analysis
+   * threads are converted in parallel.
+   */
+  @Override
+  public void reportError(AbstractError error) {
+    final Method method = error.getErrorStatement().getMethod();
+    final InputFile inputFile = converter.findInputFile(method.getDeclaringClass());
+    if (inputFile == null) {
+      return;
+    }
+    final var secondaryLocations = new ArrayList<>(converter.dataFlowLocations(error));
+    secondaryLocations.addAll(converter.precedingLocations(error));
+    final var finding =
+        Finding.of(converter.convert(inputFile, method, error), secondaryLocations);
+    final var methodKey = method.toString();
+    final var hasPrecedingErrors = !error.getPrecedingErrors().isEmpty();
+
+    synchronized (this) {
+      if (reportingMethods.contains(methodKey)) {
+        sink.accept(finding);
+      } else if (!hasPrecedingErrors) {
+        // The first error of the method to report; its held back errors are consequences of it
+        reportingMethods.add(methodKey);
+        heldBackByMethod.remove(methodKey);
+        sink.accept(finding);
+      } else {
+        heldBackByMethod.computeIfAbsent(methodKey, key -> new ArrayList<>()).add(finding);
+      }
+    }
+  }
+
+  /**
+   * Passes on the held back findings of the methods without other errors, so that no misuse is
+   * missed. Call it after the scan.
+   */
+  public synchronized void finish() {
+    heldBackByMethod.values().forEach(findings -> findings.forEach(sink));
+    heldBackByMethod.clear();
+  }
+}
@@ -1,14 +1,20 @@
-package org.sonarcrypto.utility.groundtruth;
+package org.sonarcrypto.ccerror.causes;
 
 import static org.sonarcrypto.utils.cognicrypt.boomerang.SignatureUtils.shortNameOf;
 
 import org.apache.commons.text.StringEscapeUtils;
 import org.jspecify.annotations.NullMarked;
 import org.jspecify.annotations.Nullable;
-import org.sonarcrypto.ccerror.causes.*;
 
+/** Extracts the characteristic value of a cause, e.g. the forbidden method or invalid value. */
 @NullMarked
-public class ValueSupport {
+public class CauseValues {
+  private CauseValues() {}
+
+  /**
+   * Returns the characteristic value of a cause as a string, e.g. {@code Cipher.getInstance} for a
+   * forbidden method, or null if the cause has none.
+   */
   public static <T extends Cause> @Nullable String getValue(T instance) {
     if (instance instanceof ForbiddenMethodCause cause) {
       final var forbiddenMethod = cause.getForbiddenMethod();
@@ -14,14 +14,18 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
 import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.event.Level;
 import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.batch.fs.internal.DefaultTextPointer;
 import org.sonar.api.batch.fs.internal.DefaultTextRange;
 import org.sonar.api.batch.fs.internal.TestInputFileBuilder;
 import org.sonar.api.batch.sensor.internal.SensorContextTester;
 import org.sonar.api.batch.sensor.issue.Issue;
+import org.sonar.api.batch.sensor.issue.NewIssueLocation;
 import org.sonar.api.testfixtures.log.LogTesterJUnit5;
 import org.sonarcrypto.ccerror.ConvertedError;
+import org.sonarcrypto.ccerror.Finding;
+import org.sonarcrypto.ccerror.FindingLocation;
 import org.sonarcrypto.ccerror.causes.UndefinedCause;
 import org.sonarcrypto.ccerror.violations.CallViolation;
 
@@ -65,7 +69,7 @@ class CcToSonarIssuesTest {
                 method("init"),
                 new CallViolation(RuleKind.GENERAL, new UndefinedCause("Undefined"))));
 
-    issueReporter.reportAllIssues(sensorContext, errors);
+    issueReporter.reportAllIssues(sensorContext, findings(errors));
 
     assertThat(sensorContext.allIssues()).hasSize(3);
   }
@@ -93,7 +97,7 @@ class CcToSonarIssuesTest {
                 method("init"),
                 new CallViolation(RuleKind.GENERAL, new UndefinedCause("Undefined"))));
 
-    issueReporter.reportAllIssues(sensorContext, errors);
+    issueReporter.reportAllIssues(sensorContext, findings(errors));
 
     assertThat(sensorContext.allIssues()).hasSize(3);
   }
@@ -109,12 +113,110 @@ class CcToSonarIssuesTest {
             method("encrypt"),
             new CallViolation(RuleKind.GENERAL, new UndefinedCause("Undefined")));
 
-    issueReporter.reportAllIssues(sensorContext, List.of(error));
+    issueReporter.reportAllIssues(sensorContext, findings(List.of(error)));
 
     Issue issue = sensorContext.allIssues().iterator().next();
     assertThat(issue.primaryLocation().message()).contains("encrypt");
   }
 
+  @Test
+  void report_all_issues_reports_error_without_position_on_file_level() throws IOException {
+    final var inputFile =
+        addJavaFile("com/example/Foo.java", "package com.example;\npublic class Foo {}");
+    final var error =
+        new ConvertedError(
+            inputFile,
+            null,
+            method("encrypt"),
+            new CallViolation(RuleKind.GENERAL, new UndefinedCause("Undefined")));
+
+    issueReporter.reportAllIssues(sensorContext, findings(List.of(error)));
+
+    Issue issue = sensorContext.allIssues().iterator().next();
+    assertThat(issue.primaryLocation().inputComponent()).isEqualTo(inputFile);
+    assertThat(issue.primaryLocation().textRange()).isNull();
+  }
+
+  @Test
+  void report_all_issues_adds_secondary_locations() throws IOException {
+    final var inputFile =
+        addJavaFile("com/example/Foo.java", "package com.example;\npublic class Foo {}");
+    final var error =
+        new ConvertedError(
+            inputFile,
+            new DefaultTextRange(new DefaultTextPointer(2, 0), new DefaultTextPointer(2, 6)),
+            method("encrypt"),
+            new CallViolation(RuleKind.GENERAL, new UndefinedCause("Undefined")));
+    final var secondary =
+        new FindingLocation(
+            inputFile,
+            new DefaultTextRange(new DefaultTextPointer(1, 0), new DefaultTextPointer(1, 7)),
+            "Preceding error: Undefined");
+
+    issueReporter.reportAllIssues(sensorContext, List.of(Finding.of(error, List.of(secondary))));
+
+    Issue issue = sensorContext.allIssues().iterator().next();
+    assertThat(issue.flows()).hasSize(1);
+    final var location = issue.flows().get(0).locations().get(0);
+    assertThat(location.textRange().start().line()).isEqualTo(1);
+    assertThat(location.message()).isEqualTo("Preceding error: Undefined");
+  }
+
+  @Test
+  void report_all_issues_logs_one_summary_instead_of_each_issue() throws IOException {
+    final var inputFile =
+        addJavaFile("com/example/Foo.java", "package com.example;\npublic class Foo {}");
+    final var range =
+        new DefaultTextRange(new DefaultTextPointer(2, 0), new DefaultTextPointer(2, 6));
+    final var errors =
+        List.of(
+            new ConvertedError(
+                inputFile,
+                range,
+                method("encrypt"),
+                new CallViolation(RuleKind.GENERAL, new UndefinedCause("Undefined"))),
+            new ConvertedError(
+                inputFile,
+                range,
+                method("decrypt"),
+                new CallViolation(RuleKind.ALGORITHM, new UndefinedCause("Undefined"))),
+            new ConvertedError(
+                inputFile,
+                range,
+                method("init"),
+                new CallViolation(RuleKind.ALGORITHM, new UndefinedCause("Undefined"))));
+
+    issueReporter.reportAllIssues(sensorContext, findings(errors));
+
+    assertThat(logTester.logs(Level.INFO))
+        .singleElement()
+        .asString()
+        .startsWith("Reported issues per rule:")
+        .containsPattern("CC1 +GENERAL +1")
+        .containsPattern("CC2 +ALGORITHM +2");
+  }
+
+  @Test
+  void report_all_issues_truncates_long_messages() throws IOException {
+    final var inputFile =
+        addJavaFile("com/example/Foo.java", "package com.example;\npublic class Foo {}");
+    final var error =
+        new ConvertedError(
+            inputFile,
+            null,
+            method("encrypt"),
+            new CallViolation(
+                RuleKind.GENERAL,
+                new UndefinedCause("x".repeat(NewIssueLocation.MESSAGE_MAX_SIZE))));
+
+    issueReporter.reportAllIssues(sensorContext, findings(List.of(error)));
+
+    Issue issue = sensorContext.allIssues().iterator().next();
+    assertThat(issue.primaryLocation().message())
+        .startsWith("Cryptographic weakness in method")
+        .hasSize(NewIssueLocation.MESSAGE_MAX_SIZE);
+  }
+
   @Test
   void report_all_issues_handles_empty_table() {
     issueReporter.reportAllIssues(sensorContext, List.of(/* empty */ ));
@@ -182,6 +284,10 @@ class CcToSonarIssuesTest {
         .contains(customMessage);
   }
 
+  private static List<Finding> findings(List<ConvertedError> errors) {
+    return errors.stream().map(Finding::of).toList();
+  }
+
   private InputFile addJavaFile(String relativePath, String content) throws IOException {
     Path srcDir = tempDir.resolve("src/main/java");
     Files.createDirectories(srcDir);
@@ -21,13 +21,15 @@ import org.jspecify.annotations.Nullable;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
 import org.junit.jupiter.api.io.TempDir;
+import org.sonar.api.batch.sensor.SensorContext;
 import org.sonar.api.batch.sensor.SensorDescriptor;
 import org.sonar.api.batch.sensor.internal.SensorContextTester;
+import org.sonar.api.config.internal.MapSettings;
 import org.sonar.api.testfixtures.log.LogTesterJUnit5;
+import org.sonarcrypto.ccerror.Finding;
 import org.sonarcrypto.ccerror.causes.Cause;
 import org.sonarcrypto.utility.groundtruth.GroundTruthParser;
 import org.sonarcrypto.utility.groundtruth.GroundTruthUtils;
-import org.sonarcrypto.utility.groundtruth.ValueSupport;
 
 @NullMarked
 class CryptoSensorTest {
@@ -47,6 +49,43 @@ class CryptoSensorTest {
     verify(descriptor).onlyOnLanguages("java");
   }
 
+  @Test
+  void callGraphCacheDirectory_is_disabled_by_default() {
+    final var config =
+        new MapSettings()
+            .setProperty("sonar.userHome", tempDir.toString())
+            .setProperty(
+                CryptoPlugin.CALL_GRAPH_CACHE_DIRECTORY_KEY, tempDir.resolve("cache").toString())
+            .asConfig();
+
+    assertThat(CryptoSensor.callGraphCacheDirectory(config)).isNull();
+  }
+
+  @Test
+  void callGraphCacheDirectory_defaults_to_project_directory_in_user_home() {
+    final var config =
+        new MapSettings()
+            .setProperty(CryptoPlugin.CALL_GRAPH_CACHE_ENABLED_KEY, true)
+            .setProperty("sonar.userHome", tempDir.toString())
+            .setProperty("sonar.projectKey", "org.example:app")
+            .asConfig();
+
+    assertThat(CryptoSensor.callGraphCacheDirectory(config))
+        .isEqualTo(tempDir.resolve("crypto/callgraph-cache/org.example_app"));
+  }
+
+  @Test
+  void callGraphCacheDirectory_is_configurable() {
+    final var config =
+        new MapSettings()
+            .setProperty(CryptoPlugin.CALL_GRAPH_CACHE_ENABLED_KEY, true)
+            .setProperty(
+                CryptoPlugin.CALL_GRAPH_CACHE_DIRECTORY_KEY, tempDir.resolve("cache").toString())
+            .asConfig();
+
+    assertThat(CryptoSensor.callGraphCacheDirectory(config)).isEqualTo(tempDir.resolve("cache"));
+  }
+
   @Test
   void execute_fails_for_non_maven_project() {
     CryptoSensor sensor = new CryptoSensor();
@@ -61,13 +100,27 @@ class CryptoSensorTest {
 
   @Test
   void testExecuteMavenProject() throws IOException {
-    CryptoSensor sensor = new CryptoSensor();
+    // The findings carry the causes the ground truth specifies, unlike the saved issues
+    final var foundErrors = new ArrayList<Finding>();
+    CryptoSensor sensor =
+        new CryptoSensor(
+            new CcToSonarIssues() {
+              @Override
+              public Reporter newReporter(SensorContext context) {
+                return new Reporter(context) {
+                  @Override
+                  public void accept(Finding finding) {
+                    foundErrors.add(finding);
+                    super.accept(finding);
+                  }
+                };
+              }
+            });
     SensorContextTester context =
         SensorContextTester.create(Path.of("../e2e/src/test/resources/Java/Maven/Basic"));
     initializeFileSystem(context);
 
-    final var foundErrors = sensor.scan(context.fileSystem(), sensor.extractRules());
-    sensor.report(context, foundErrors);
+    sensor.execute(context);
 
     final var groundTruth = new GroundTruthParser().parse(context.fileSystem());
     // groundTruth.forEach((key, value) -> System.out.println(key + " -> " + value));
@@ -105,12 +158,7 @@ class CryptoSensorTest {
                   new GroundTruthParser.Location(
                       error.inputFile().filename(), error.position().start().line()),
                   location1 -> new Entry(new HashSet<>(), new HashMap<>()));
-          final var violation = error.violation();
-          final var item =
-              new Item(
-                  violation.getRulesDefinition().getRuleKind(),
-                  violation.getCause().getClass(),
-                  ValueSupport.getValue(violation.getCause()));
+          final var item = new Item(error.ruleKind(), error.causeType(), error.causeValue());
           entry.actual.add(item);
         });
 
@@ -172,7 +220,7 @@ class CryptoSensorTest {
   }
 
   @Test
-  void scan_prefers_jimple_input_when_bridge_output_exists() throws IOException {
+  void execute_prefers_jimple_input_when_bridge_output_exists() throws IOException {
     CryptoSensor sensor = new CryptoSensor();
     SensorContextTester context = SensorContextTester.create(tempDir);
     context.fileSystem().setWorkDir(tempDir);
@@ -181,7 +229,7 @@ class CryptoSensorTest {
     Files.createDirectories(jimpleDir);
     Files.writeString(jimpleDir.resolve("Invalid.jimple"), "invalid jimple");
 
-    assertThatThrownBy(() -> sensor.scan(context.fileSystem(), sensor.extractRules()))
+    assertThatThrownBy(() -> sensor.execute(context))
         .isInstanceOfAny(AssertionError.class, RuntimeException.class);
     assertThat(logTester.logs())
         .anyMatch(it -> it.contains("Using Jimple files from bridge output"))
@@ -189,19 +237,17 @@ class CryptoSensorTest {
   }
 
   @Test
-  void resolveAnalysisClassPath() throws Exception {
+  void resolveProjectClassPath() throws Exception {
     final var result =
         (String)
             invokePrivateStatic(
-                "resolveAnalysisClassPath",
-                new Class<?>[] {String.class, String.class},
+                "resolveProjectClassPath",
+                new Class<?>[] {String.class},
                 Path.of("../e2e/src/test/resources/Java/Maven/Basic")
                     .toAbsolutePath()
                     .normalize()
-                    .toString(),
-                "rules.jar");
+                    .toString());
 
-    assertThat(result).startsWith("rules.jar" + java.io.File.pathSeparator);
     assertThat(result).contains("bcprov-jdk18on");
   }
 
@@ -0,0 +1,140 @@
+package org.sonarcrypto.ccerror;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import boomerang.scope.Method;
+import boomerang.scope.Statement;
+import boomerang.scope.WrappedClass;
+import crypto.analysis.IAnalysisSeed;
+import crypto.analysis.errors.AbstractError;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.batch.fs.internal.TestInputFileBuilder;
+import org.sonar.api.batch.sensor.internal.SensorContextTester;
+
+class CcErrorConverterTest {
+
+  @TempDir Path tempDir;
+
+  private SensorContextTester sensorContext;
+
+  @BeforeEach
+  void setUp() {
+    sensorContext = SensorContextTester.create(tempDir);
+  }
+
+  @Test
+  void convert_locates_error_on_its_line() throws IOException {
+    addJavaFile("com/example/Foo.java", "package com.example;\nclass Foo {\n  void m() {}\n}\n");
+    final var converter = new CcErrorConverter(sensorContext.fileSystem());
+    final var inputFile = converter.findInputFile(wrappedClass("com.example.Foo$Inner"));
+    final var method = method("m");
+
+    final var converted = converter.convert(inputFile, method, error(3));
+
+    assertThat(inputFile.filename()).isEqualTo("Foo.java");
+    assertThat(converted.method()).isSameAs(method);
+    assertThat(converted.position().start().line()).isEqualTo(3);
+  }
+
+  @Test
+  void convert_reports_on_file_level_if_line_is_out_of_range() throws IOException {
+    addJavaFile("com/example/Foo.java", "package com.example;\nclass Foo {}");
+    final var converter = new CcErrorConverter(sensorContext.fileSystem());
+    final var inputFile = converter.findInputFile(wrappedClass("com.example.Foo"));
+
+    assertThat(converter.convert(inputFile, method("m"), error(42)).position()).isNull();
+  }
+
+  @Test
+  void dataFlowLocations_locate_the_creation_of_the_object() throws IOException {
+    addJavaFile(
+        "com/example/Foo.java",
+        "package com.example;\nclass Foo {\n  Object o = new Object();\n  void m() {}\n}\n");
+    final var converter = new CcErrorConverter(sensorContext.fileSystem());
+    final var seed = seed(method("m", wrappedClass("com.example.Foo")), 3);
+    final var error = error(4);
+    when(error.getSeed()).thenReturn(seed);
+
+    assertThat(converter.dataFlowLocations(error))
+        .singleElement()
+        .satisfies(
+            location -> {
+              assertThat(location.position().start().line()).isEqualTo(3);
+              assertThat(location.message()).isEqualTo("Object created here");
+            });
+  }
+
+  @Test
+  void dataFlowLocations_are_empty_without_object() {
+    final var converter = new CcErrorConverter(sensorContext.fileSystem());
+
+    assertThat(converter.dataFlowLocations(error(4))).isEmpty();
+  }
+
+  private void addJavaFile(String relativePath, String content) throws IOException {
+    Path javaFile = tempDir.resolve("src/main/java").resolve(relativePath);
+    Files.createDirectories(javaFile.getParent());
+    Files.writeString(javaFile, content);
+
+    InputFile inputFile =
+        TestInputFileBuilder.create("mod", tempDir.toFile(), javaFile.toFile())
+            .setLanguage("java")
+            .setType(InputFile.Type.MAIN)
+            .setCharset(StandardCharsets.UTF_8)
+            .setContents(content)
+            .build();
+    sensorContext.fileSystem().add(inputFile);
+  }
+
+  private static Set<AbstractError> orderedSet(AbstractError... errors) {
+    return new LinkedHashSet<>(List.of(errors));
+  }
+
+  private static AbstractError error(int line, AbstractError... precedingErrors) {
+    AbstractError error = mock(AbstractError.class);
+    when(error.getLineNumber()).thenReturn(line);
+    when(error.getPrecedingErrors()).thenReturn(orderedSet(precedingErrors));
+    when(error.toErrorMarkerString()).thenReturn("error at line " + line);
+    return error;
+  }
+
+  private static WrappedClass wrappedClass(String fqn) {
+    WrappedClass wc = mock(WrappedClass.class);
+    when(wc.getFullyQualifiedName()).thenReturn(fqn);
+    return wc;
+  }
+
+  private static Method method(String name) {
+    Method methodMock = mock(Method.class);
+    when(methodMock.getName()).thenReturn(name);
+    return methodMock;
+  }
+
+  private static Method method(String name, WrappedClass declaringClass) {
+    Method methodMock = method(name);
+    when(methodMock.getDeclaringClass()).thenReturn(declaringClass);
+    return methodMock;
+  }
+
+  private static IAnalysisSeed seed(Method method, int line) {
+    Statement origin = mock(Statement.class);
+    when(origin.getMethod()).thenReturn(method);
+    when(origin.getStartLineNumber()).thenReturn(line);
+
+    IAnalysisSeed seed = mock(IAnalysisSeed.class);
+    when(seed.getOrigin()).thenReturn(origin);
+    return seed;
+  }
+}
@@ -0,0 +1,130 @@
+package org.sonarcrypto.ccerror;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.jspecify.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.batch.fs.TextRange;
+import org.sonar.api.batch.fs.internal.DefaultTextPointer;
+import org.sonar.api.batch.fs.internal.DefaultTextRange;
+import org.sonar.api.batch.fs.internal.TestInputFileBuilder;
+import org.sonarcrypto.CryptoRulesDefinitions;
+import org.sonarcrypto.ccerror.causes.Cause;
+import org.sonarcrypto.ccerror.causes.IncompleteOperationCause;
+import org.sonarcrypto.ccerror.causes.UndefinedCause;
+
+class FindingAggregatorTest {
+  private final InputFile inputFile =
+      TestInputFileBuilder.create("mod", "src/main/java/com/example/Foo.java").build();
+
+  @Test
+  void merges_findings_of_the_same_misuse() {
+    final var first = finding(range(3), "cipher", location(1));
+    final var duplicate = finding(range(3), "cipher", location(1), location(2));
+
+    final var aggregated = aggregate(first, duplicate);
+
+    assertThat(aggregated).singleElement().extracting(Finding::message).isEqualTo("message");
+    assertThat(aggregated.get(0).secondaryLocations())
+        .extracting(location -> location.position().start().line())
+        .containsExactly(1, 2);
+  }
+
+  @Test
+  void keeps_findings_of_different_positions_and_causes() {
+    final var findings =
+        new Finding[] {
+          finding(range(3), "cipher"),
+          finding(range(4), "cipher"),
+          finding(range(3), "digest"),
+          finding(range(3), IncompleteOperationCause.class, "cipher"),
+          finding(null, "cipher")
+        };
+
+    assertThat(aggregate(findings)).containsExactly(findings);
+  }
+
+  @Test
+  void keeps_findings_of_the_same_object_at_different_positions() {
+    // E.g. a wrong key and a wrong algorithm for the same Cipher object
+    final var creation = new FindingLocation(inputFile, range(2), "`Cipher` object created here");
+    final var algorithm = finding(range(3), "cipher", creation);
+    final var key = finding(range(5), "key", creation);
+
+    assertThat(aggregate(algorithm, key)).containsExactly(algorithm, key);
+  }
+
+  @Test
+  void limits_secondary_locations() {
+    final var findings =
+        IntStream.rangeClosed(1, FindingAggregator.MAX_SECONDARY_LOCATIONS + 5)
+            .mapToObj(line -> finding(range(3), "cipher", location(line)))
+            .toArray(Finding[]::new);
+
+    assertThat(aggregate(findings))
+        .singleElement()
+        .extracting(finding -> finding.secondaryLocations().size())
+        .isEqualTo(FindingAggregator.MAX_SECONDARY_LOCATIONS);
+  }
+
+  @Test
+  void passes_on_the_merged_findings_on_finish() {
+    final var passedOn = new ArrayList<Finding>();
+    final var aggregator = new FindingAggregator(passedOn::add);
+    final var first = finding(range(3), "cipher", location(1));
+    final var other = finding(range(4), "cipher");
+
+    aggregator.accept(first);
+    aggregator.accept(finding(range(3), "cipher", location(2)));
+    aggregator.accept(other);
+    assertThat(passedOn).isEmpty();
+
+    aggregator.finish();
+    assertThat(passedOn)
+        .containsExactly(first.withSecondaryLocations(List.of(location(1), location(2))), other);
+    assertThat(aggregator.getFindingCount()).isEqualTo(3);
+    assertThat(aggregator.getMisuseCount()).isEqualTo(2);
+  }
+
+  private static List<Finding> aggregate(Finding... findings) {
+    final var aggregated = new ArrayList<Finding>();
+    final var aggregator = new FindingAggregator(aggregated::add);
+    for (final var finding : findings) {
+      aggregator.accept(finding);
+    }
+    aggregator.finish();
+    return aggregated;
+  }
+
+  private Finding finding(
+      @Nullable TextRange position, String causeValue, FindingLocation... secondaryLocations) {
+    return finding(position, UndefinedCause.class, causeValue, secondaryLocations);
+  }
+
+  private Finding finding(
+      @Nullable TextRange position,
+      Class<? extends Cause> causeType,
+      String causeValue,
+      FindingLocation... secondaryLocations) {
+    return new Finding(
+        inputFile,
+        position,
+        CryptoRulesDefinitions.GENERAL,
+        "message",
+        causeType,
+        causeValue,
+        List.of(secondaryLocations));
+  }
+
+  private FindingLocation location(int line) {
+    return new FindingLocation(inputFile, range(line), "Preceding error");
+  }
+
+  private static TextRange range(int line) {
+    return new DefaultTextRange(new DefaultTextPointer(line, 0), new DefaultTextPointer(line, 5));
+  }
+}
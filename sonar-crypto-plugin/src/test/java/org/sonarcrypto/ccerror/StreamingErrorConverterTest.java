@@ -0,0 +1,135 @@
+package org.sonarcrypto.ccerror;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import boomerang.scope.Method;
+import boomerang.scope.Statement;
+import boomerang.scope.WrappedClass;
+import crypto.analysis.errors.AbstractError;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.batch.fs.internal.TestInputFileBuilder;
+import org.sonar.api.batch.sensor.internal.SensorContextTester;
+
+class StreamingErrorConverterTest {
+
+  @TempDir Path tempDir;
+
+  private final List<Finding> findings = new ArrayList<>();
+  private StreamingErrorConverter converter;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    final var sensorContext = SensorContextTester.create(tempDir);
+    final var content = "package com.example;\nclass Foo {\n  void m() {}\n  void n() {}\n}\n";
+    final var javaFile = tempDir.resolve("src/main/java/com/example/Foo.java");
+    Files.createDirectories(javaFile.getParent());
+    Files.writeString(javaFile, content);
+    InputFile inputFile =
+        TestInputFileBuilder.create("mod", tempDir.toFile(), javaFile.toFile())
+            .setLanguage("java")
+            .setType(InputFile.Type.MAIN)
+            .setCharset(StandardCharsets.UTF_8)
+            .setContents(content)
+            .build();
+    sensorContext.fileSystem().add(inputFile);
+
+    converter =
+        new StreamingErrorConverter(
+            new CcErrorConverter(sensorContext.fileSystem()), findings::add);
+  }
+
+  @Test
+  void reported_errors_are_converted_per_method() {
+    final var wrappedClass = wrappedClass("com.example.Foo");
+    final var m = method("m", wrappedClass);
+    final var n = method("n", wrappedClass);
+    final var precedingError = error(m, 3);
+
+    // Reported before its preceding error, so that it is held back and then dropped
+    converter.reportError(error(m, 4, precedingError));
+    assertThat(findings).isEmpty();
+    converter.reportError(precedingError);
+    assertThat(findings).hasSize(1);
+    // The only error of its method, so that it is reported although it has a preceding error
+    converter.reportError(error(n, 4, precedingError));
+    assertThat(findings).hasSize(1);
+
+    converter.finish();
+    assertThat(findings)
+        .extracting(finding -> finding.position().start().line())
+        .containsExactly(3, 4);
+    assertThat(findings.get(0).message()).contains("`Foo.m`");
+    assertThat(findings.get(1).message()).contains("`Foo.n`");
+    // The preceding error becomes a secondary location
+    assertThat(findings.get(0).secondaryLocations()).isEmpty();
+    assertThat(findings.get(1).secondaryLocations())
+        .singleElement()
+        .satisfies(
+            location -> {
+              assertThat(location.position().start().line()).isEqualTo(3);
+              assertThat(location.message()).startsWith("Preceding error: ");
+            });
+  }
+
+  @Test
+  void errors_reported_by_several_threads_are_all_converted() {
+    final var wrappedClass = wrappedClass("com.example.Foo");
+    final var errors =
+        IntStream.range(0, 100)
+            .mapToObj(i -> error(method(i % 2 == 0 ? "m" : "n", wrappedClass), 3 + i % 2))
+            .toList();
+
+    errors.parallelStream().forEach(converter::reportError);
+    converter.finish();
+
+    assertThat(findings).hasSize(errors.size());
+  }
+
+  @Test
+  void errors_of_unknown_classes_are_dropped() {
+    converter.reportError(error(method("m", wrappedClass("com.example.Unknown")), 3));
+    converter.finish();
+
+    assertThat(findings).isEmpty();
+  }
+
+  private static AbstractError error(Method method, int line, AbstractError... precedingErrors) {
+    Statement statement = mock(Statement.class);
+    when(statement.getMethod()).thenReturn(method);
+    Set<AbstractError> preceding = new LinkedHashSet<>(List.of(precedingErrors));
+
+    AbstractError error = mock(AbstractError.class);
+    when(error.getErrorStatement()).thenReturn(statement);
+    when(error.getLineNumber()).thenReturn(line);
+    when(error.getPrecedingErrors()).thenReturn(preceding);
+    when(error.toErrorMarkerString()).thenReturn("error at line " + line);
+    return error;
+  }
+
+  private static WrappedClass wrappedClass(String fqn) {
+    WrappedClass wc = mock(WrappedClass.class);
+    when(wc.getFullyQualifiedName()).thenReturn(fqn);
+    return wc;
+  }
+
+  private static Method method(String name, WrappedClass declaringClass) {
+    Method methodMock = mock(Method.class);
+    when(methodMock.getName()).thenReturn(name);
+    when(methodMock.getDeclaringClass()).thenReturn(declaringClass);
+    return methodMock;
+  }
+}
@@ -1,15 +1,24 @@
 package org.sonarcrypto.utils.cognicrypt;
 
-import java.util.LinkedHashMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
 import org.sonarcrypto.utils.jimple.mapper.LineMapping;
+import sootup.core.graph.MutableBlockStmtGraph;
+import sootup.core.graph.StmtGraph;
 import sootup.core.jimple.basic.SimpleStmtPositionInfo;
 import sootup.core.jimple.basic.StmtPositionInfo;
+import sootup.core.jimple.basic.Trap;
 import sootup.core.jimple.common.stmt.*;
 import sootup.core.jimple.javabytecode.stmt.*;
 import sootup.core.jimple.visitor.StmtVisitor;
 import sootup.core.model.Body;
+import sootup.core.model.MethodModifier;
 import sootup.core.transform.BodyInterceptor;
 import sootup.core.views.View;
 
@@ -21,27 +30,105 @@ public class LocationReplacerInterceptor implements BodyInterceptor {
     this.statementMappings = statementMappings;
   }
 
+  /**
+   * Replaces the positions of all mapped statements.
+   *
+   * <p>Replacing statements one by one with {@code replaceNode} updates the block structure of the
+   * graph for every statement, which is expensive for methods with many statements. Instead, the
+   * graph is rebuilt once from the linearized statements, with branch targets and traps redirected
+   * to the replacements, and swapped into the builder.
+   */
   @Override
   public void interceptBody(Body.BodyBuilder builder, @NonNull View view) {
-    Map<Stmt, Stmt> stmtsToReplace = new LinkedHashMap<>();
-    builder
-        .getStmtGraph()
-        .iterator()
-        .forEachRemaining(
-            stmt -> {
-              LineMapping mapping =
-                  statementMappings.get(stmt.getPositionInfo().getStmtPosition().getFirstLine());
-              if (mapping != null) {
-                StmtPositionInfo newPosInfo =
-                    new SimpleStmtPositionInfo(mapping.getSourcePosition().toSootUpPosition());
-                PositionReplacer replacer = new PositionReplacer(newPosInfo);
-                stmt.accept(replacer);
-                if (replacer.result != null && replacer.result != stmt) {
-                  stmtsToReplace.put(stmt, replacer.result);
-                }
-              }
-            });
-    stmtsToReplace.forEach((old, updated) -> builder.getStmtGraph().replaceNode(old, updated));
+    MutableBlockStmtGraph relocated = relocate(builder.getStmtGraph());
+    if (relocated != null) {
+      builder.setStmtGraph(relocated);
+    }
+  }
+
+  /**
+   * Creates a builder for the body with the positions of all mapped statements replaced.
+   *
+   * <p>{@link Body#builder(Body, Set)} copies the statement graph of the body, which {@link
+   * #interceptBody} would then rebuild once more. This builds the relocated graph directly from the
+   * body, so that further interceptors can run on it without another copy.
+   *
+   * @param body The body to relocate
+   * @param modifiers The modifiers of the method
+   * @return The builder
+   */
+  public Body.BodyBuilder relocatedBuilder(Body body, Set<MethodModifier> modifiers) {
+    MutableBlockStmtGraph relocated = relocate(body.getStmtGraph());
+    if (relocated == null) {
+      return Body.builder(body, modifiers);
+    }
+    Body.BodyBuilder builder = Body.builder(relocated);
+    builder.setMethodSignature(body.getMethodSignature());
+    builder.setLocals(body.getLocals());
+    builder.setPosition(body.getPosition());
+    builder.setModifiers(modifiers);
+    return builder;
+  }
+
+  /**
+   * Builds a copy of the graph with the positions of all mapped statements replaced.
+   *
+   * @param graph The graph
+   * @return The new graph, or null if no statement of the graph is mapped
+   */
+  private @Nullable MutableBlockStmtGraph relocate(StmtGraph<?> graph) {
+    List<Stmt> stmts = graph.getStmts();
+
+    Map<Stmt, Stmt> replacements = new IdentityHashMap<>();
+    List<Stmt> newStmts = new ArrayList<>(stmts.size());
+    for (Stmt stmt : stmts) {
+      Stmt newStmt = replace(stmt);
+      if (newStmt != stmt) {
+        replacements.put(stmt, newStmt);
+      }
+      newStmts.add(newStmt);
+    }
+    if (replacements.isEmpty()) {
+      return null;
+    }
+
+    Map<BranchingStmt, List<Stmt>> branchingMap = new HashMap<>();
+    for (int i = 0; i < stmts.size(); i++) {
+      if (stmts.get(i) instanceof BranchingStmt branchingStmt) {
+        List<Stmt> targets = new ArrayList<>();
+        for (Stmt target : graph.getBranchTargetsOf(branchingStmt)) {
+          targets.add(replacements.getOrDefault(target, target));
+        }
+        branchingMap.put((BranchingStmt) newStmts.get(i), targets);
+      }
+    }
+
+    List<Trap> traps = new ArrayList<>();
+    for (Trap trap : graph.buildTraps()) {
+      traps.add(
+          new Trap(
+              trap.getExceptionType(),
+              replacements.getOrDefault(trap.getBeginStmt(), trap.getBeginStmt()),
+              replacements.getOrDefault(trap.getEndStmt(), trap.getEndStmt()),
+              replacements.getOrDefault(trap.getHandlerStmt(), trap.getHandlerStmt())));
+    }
+
+    MutableBlockStmtGraph newGraph = new MutableBlockStmtGraph();
+    newGraph.initializeWith(newStmts, branchingMap, traps);
+    return newGraph;
+  }
+
+  private Stmt replace(Stmt stmt) {
+    LineMapping mapping =
+        statementMappings.get(stmt.getPositionInfo().getStmtPosition().getFirstLine());
+    if (mapping == null) {
+      return stmt;
+    }
+    StmtPositionInfo newPosInfo =
+        new SimpleStmtPositionInfo(mapping.getSourcePosition().toSootUpPosition());
+    PositionReplacer replacer = new PositionReplacer(newPosInfo);
+    stmt.accept(replacer);
+    return replacer.result != null ? replacer.result : stmt;
   }
 
   private static class PositionReplacer implements StmtVisitor {
@@ -4,11 +4,11 @@ import static java.lang.Math.*;
 import static org.sonarcrypto.utils.cognicrypt.boomerang.SignatureUtils.shortNameOf;
 import static org.sonarcrypto.utils.sonar.TextUtils.code;
 
+import boomerang.scope.Statement;
 import boomerang.scope.sootup.jimple.JimpleUpStatement;
 import crypto.analysis.errors.AbstractError;
 import crypto.utils.CrySLUtils;
 import crysl.rule.CrySLMethod;
-import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
@@ -16,6 +16,7 @@ import org.jspecify.annotations.Nullable;
 import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.batch.fs.TextRange;
 import org.sonarcrypto.utils.cognicrypt.boomerang.CalleeInfo;
+import org.sonarcrypto.utils.sonar.LineTable;
 import org.sonarcrypto.utils.sonar.TextUtils;
 import org.sonarcrypto.utils.sonar.TextUtils.Code;
 
@@ -82,10 +83,37 @@ public class ConverterUtils {
    * Selects a location as precise as possible, if the {@link AbstractError#getErrorStatement()
    * error's statement} is as {@link JimpleUpStatement}. Otherwise, it simply uses the {@link
    * AbstractError#getLineNumber() error's line number}.
+   *
+   * <p>The range is validated against the line table of the file. If it does not fit the file, the
+   * whole start line is selected instead, and if that is not possible either, {@code null} is
+   * returned.
+   *
+   * @param inputFile the file containing the error
+   * @param lines the line table of the file
+   * @param error the error
+   * @return the location, or {@code null} if the error cannot be located in the file
    */
-  public static TextRange selectLocation(InputFile inputFile, AbstractError error) {
-    final var stmt = error.getErrorStatement();
+  public static @Nullable TextRange selectLocation(
+      InputFile inputFile, LineTable lines, AbstractError error) {
+    return selectLocation(inputFile, lines, error.getErrorStatement(), error.getLineNumber());
+  }
 
+  /**
+   * Selects the location of a statement like {@link #selectLocation(InputFile, LineTable,
+   * AbstractError)} does for the statement of an error.
+   *
+   * @param inputFile the file containing the statement
+   * @param lines the line table of the file
+   * @param stmt the statement
+   * @return the location, or {@code null} if the statement cannot be located in the file
+   */
+  public static @Nullable TextRange selectLocation(
+      InputFile inputFile, LineTable lines, Statement stmt) {
+    return selectLocation(inputFile, lines, stmt, stmt.getStartLineNumber());
+  }
+
+  private static @Nullable TextRange selectLocation(
+      InputFile inputFile, LineTable lines, Statement stmt, int lineNumber) {
     if (stmt instanceof JimpleUpStatement upStmt) {
       final var positionInfo = upStmt.getDelegate().getPositionInfo();
 
@@ -93,33 +121,37 @@ public class ConverterUtils {
       final var startLine = max(position.getFirstLine(), 1);
 
       var startLineOffset = position.getFirstCol();
-      final var endLine = position.getLastLine();
+      final var endLine = max(position.getLastLine() - 1, startLine);
       var endLineOffset = position.getLastCol();
 
-      try {
-        final var actualLine =
-            inputFile.contents().lines().skip(max(0, startLine - 1)).findFirst().orElse("");
+      if (lines.isValidLine(startLine)) {
+        final var actualLineLength = lines.lineLength(startLine);
 
-        if (!actualLine.isEmpty()) {
-          final var actualLineOffset =
-              (int)
-                  min(
-                      actualLine.chars().takeWhile(Character::isWhitespace).count(),
-                      Integer.MAX_VALUE);
+        if (actualLineLength > 0) {
+          final var actualLineOffset = lines.indentation(startLine);
 
-          if (actualLineOffset < actualLine.length() - 1) startLineOffset = actualLineOffset;
+          if (actualLineOffset < actualLineLength - 1) startLineOffset = actualLineOffset;
 
-          if (endLineOffset < 1) endLineOffset = actualLine.length();
+          if (endLineOffset < 1) endLineOffset = actualLineLength;
         }
-      } catch (IOException e) {
-        // Ignore and continue.
       }
 
-      return inputFile.newRange(
-          startLine, startLineOffset, max(endLine - 1, startLine), endLineOffset);
+      if (lines.isValidRange(startLine, startLineOffset, endLine, endLineOffset)) {
+        return inputFile.newRange(startLine, startLineOffset, endLine, endLineOffset);
+      }
+
+      return selectLine(inputFile, lines, startLine);
     }
 
-    return inputFile.selectLine(max(error.getLineNumber(), 1));
+    return selectLine(inputFile, lines, max(lineNumber, 1));
+  }
+
+  private static @Nullable TextRange selectLine(InputFile inputFile, LineTable lines, int line) {
+    // Empty lines cannot be selected, as the start of a range must be before its end
+    if (!lines.isValidLine(line) || lines.lineLength(line) == 0) {
+      return null;
+    }
+    return inputFile.selectLine(line);
   }
 
   public static String joinMethods(
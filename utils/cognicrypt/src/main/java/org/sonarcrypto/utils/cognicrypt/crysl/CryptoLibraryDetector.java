@@ -0,0 +1,109 @@
+package org.sonarcrypto.utils.cognicrypt.crysl;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+import org.sonarcrypto.utils.cognicrypt.jimple.ReferencedTypes;
+
+/**
+ * Detects the cryptographic libraries a project uses, to select the CrySL rulesets to analyze it
+ * with.
+ *
+ * <p>A library is detected if one of its JARs is on the resolved class path of the project, or if
+ * the application refers to its packages. The references are taken from the {@link
+ * ReferencedTypes} the analysis collects anyway, so that no application file is read for the
+ * detection. The Bouncy Castle JARs contain both the JCA provider and the lightweight API, so both
+ * are detected for them.
+ */
+@NullMarked
+public final class CryptoLibraryDetector {
+
+  /** A cryptographic library covered by a CrySL ruleset. */
+  public enum CryptoLibrary {
+    /** Bouncy Castle, used as JCA provider. */
+    BOUNCY_CASTLE("org.bouncycastle.jce.", "org.bouncycastle.jcajce."),
+
+    /** The lightweight API of Bouncy Castle. */
+    BOUNCY_CASTLE_LIGHTWEIGHT("org.bouncycastle.crypto."),
+
+    /** Google Tink. */
+    TINK("com.google.crypto.tink.");
+
+    private final List<String> packagePrefixes;
+
+    CryptoLibrary(String... packagePrefixes) {
+      this.packagePrefixes = List.of(packagePrefixes);
+    }
+  }
+
+  private CryptoLibraryDetector() {}
+
+  /**
+   * Detects the cryptographic libraries of a project.
+   *
+   * @param classPath The resolved class path of the project, or null if unknown.
+   * @param referencedTypes The types the application refers to, or null if unknown, e.g. for
+   *     compiled input. Without them, libraries are only detected on the class path.
+   * @return The detected libraries.
+   */
+  public static Set<CryptoLibrary> detect(
+      @Nullable String classPath, @Nullable ReferencedTypes referencedTypes) {
+    final var libraries = EnumSet.noneOf(CryptoLibrary.class);
+    detectOnClassPath(classPath, libraries);
+    if (referencedTypes != null) {
+      for (final var library : CryptoLibrary.values()) {
+        if (library.packagePrefixes.stream().anyMatch(referencedTypes::containsPackage)) {
+          libraries.add(library);
+        }
+      }
+    }
+    return libraries;
+  }
+
+  /**
+   * Selects the rulesets covering the given libraries. The JCA rules are always included, with the
+   * Bouncy Castle provider's algorithms if Bouncy Castle is used.
+   *
+   * @param libraries The detected libraries.
+   * @return The rulesets, starting with the JCA ruleset.
+   */
+  public static List<Ruleset> selectRulesets(Set<CryptoLibrary> libraries) {
+    final var rulesets = new ArrayList<Ruleset>();
+    rulesets.add(
+        libraries.contains(CryptoLibrary.BOUNCY_CASTLE) ? Ruleset.JCA_BC_JCA : Ruleset.JCA);
+    if (libraries.contains(CryptoLibrary.BOUNCY_CASTLE_LIGHTWEIGHT)) {
+      rulesets.add(Ruleset.BC);
+    }
+    if (libraries.contains(CryptoLibrary.TINK)) {
+      rulesets.add(Ruleset.TINK);
+    }
+    return rulesets;
+  }
+
+  private static void detectOnClassPath(@Nullable String classPath, Set<CryptoLibrary> libraries) {
+    if (classPath == null) {
+      return;
+    }
+
+    for (final var entry : classPath.split(File.pathSeparator)) {
+      final var fileName = Path.of(entry.trim()).getFileName();
+      if (fileName == null) {
+        continue;
+      }
+
+      final var name = fileName.toString().toLowerCase(Locale.ROOT);
+      if (name.startsWith("bcprov") || name.startsWith("bcpkix") || name.startsWith("bcutil")) {
+        libraries.add(CryptoLibrary.BOUNCY_CASTLE);
+        libraries.add(CryptoLibrary.BOUNCY_CASTLE_LIGHTWEIGHT);
+      } else if (name.startsWith("tink")) {
+        libraries.add(CryptoLibrary.TINK);
+      }
+    }
+  }
+}
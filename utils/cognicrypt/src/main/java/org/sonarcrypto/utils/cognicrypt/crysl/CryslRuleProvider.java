@@ -4,7 +4,11 @@ import java.io.IOException;
 import java.net.URISyntaxException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 import org.jspecify.annotations.NullMarked;
 import org.slf4j.Logger;
@@ -16,6 +20,34 @@ import org.sonarcrypto.utils.resource.ResourceExtractor;
 public class CryslRuleProvider {
   private static final Logger LOGGER = LoggerFactory.getLogger(CryslRuleProvider.class);
 
+  /** The rulesets extracted in this JVM, by ruleset name. */
+  private static final Map<String, Extraction> EXTRACTED_RULESETS = new HashMap<>();
+
+  /**
+   * Provides the extracted files of a CrySL ruleset. The ruleset is extracted into a temporary
+   * directory on the first call in the JVM; later calls return the same paths as long as all
+   * extracted files still exist, so that the sensor does not extract the rules again for every
+   * module.
+   *
+   * @param ruleset The ruleset.
+   * @return The extracted ruleset paths.
+   * @throws IOException An I/O error occurred.
+   * @throws URISyntaxException Should never occur, because the URI should always be well-defined.
+   */
+  public RulesetPaths provideRuleset(Ruleset ruleset) throws IOException, URISyntaxException {
+    final var rulesetName = ruleset.getRulesetName();
+    synchronized (EXTRACTED_RULESETS) {
+      var extraction = EXTRACTED_RULESETS.get(rulesetName);
+      if (extraction == null || !extraction.isIntact()) {
+        extraction = extract(rulesetName);
+        EXTRACTED_RULESETS.put(rulesetName, extraction);
+      } else {
+        LOGGER.debug("Reusing extracted CrySL ruleset {}", extraction.paths().rulesetZip());
+      }
+      return extraction.paths();
+    }
+  }
+
   /**
    * Extracts a CrySL ruleset ZIP file and its library JARs into a temporary directory.
    *
@@ -30,6 +62,10 @@ public class CryslRuleProvider {
   }
 
   RulesetPaths extractRulesetToTempDir(String ruleset) throws IOException, URISyntaxException {
+    return extract(ruleset).paths();
+  }
+
+  private static Extraction extract(String ruleset) throws IOException, URISyntaxException {
     final var rulesFolderName = "crysl_rules";
     final var rulesetFolderName = rulesFolderName + "/" + ruleset;
     final var tempDir = Files.createTempDirectory(rulesFolderName);
@@ -49,6 +85,16 @@ public class CryslRuleProvider {
         new HashSet<>(extractedDependencyPaths)
             .stream().map(Path::toString).collect(Collectors.joining(":"));
 
-    return new RulesetPaths(extractedRulePaths.get(0), dependencyClasspath);
+    final var files = new ArrayList<Path>(extractedDependencyPaths);
+    files.add(extractedRulePaths.get(0));
+    return new Extraction(
+        new RulesetPaths(extractedRulePaths.get(0), dependencyClasspath), List.copyOf(files));
+  }
+
+  /** The paths of an extracted ruleset and all files extracted for it. */
+  private record Extraction(RulesetPaths paths, List<Path> files) {
+    boolean isIntact() {
+      return files.stream().allMatch(Files::isRegularFile);
+    }
   }
 }
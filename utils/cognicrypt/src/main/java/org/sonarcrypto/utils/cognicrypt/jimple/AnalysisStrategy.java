@@ -0,0 +1,87 @@
+package org.sonarcrypto.utils.cognicrypt.jimple;
+
+import de.fraunhofer.iem.scanner.ScannerSettings.CallGraphAlgorithm;
+import java.time.Duration;
+
+/**
+ * Combinations of call graph algorithm, JDK mode and entry points, ordered from the most precise
+ * to the cheapest. {@link #STANDARD} is the default; {@link #select} is only used when a strategy
+ * is to be picked automatically.
+ *
+ * <p>The cost estimates are a fixed overhead plus a cost per method with a body, as the call graph
+ * and the data-flow analysis both scale with the number of methods rather than with their size. The
+ * per-method costs are initial values, not calibrated on a benchmark: they rank the strategies and
+ * should be recalibrated from the estimated and actual analysis times that are logged when a
+ * strategy is selected automatically.
+ */
+public enum AnalysisStrategy {
+  /** RTA over all application methods, with the JCA/JCE part of the runtime. */
+  PRECISE(CallGraphAlgorithm.RTA, JdkMode.CRYPTO_API, EntryPointStrategy.ALL_METHODS, 20, 40),
+
+  /** RTA over all application methods, without the runtime. */
+  STANDARD(CallGraphAlgorithm.RTA, JdkMode.EXCLUDE, EntryPointStrategy.ALL_METHODS, 5, 20),
+
+  /** RTA from the methods that may reach a CrySL-rule class only. */
+  PRUNED(CallGraphAlgorithm.RTA, JdkMode.EXCLUDE, EntryPointStrategy.RULE_REACHABLE, 5, 8),
+
+  /** CHA from the methods that may reach a CrySL-rule class only. */
+  FAST(CallGraphAlgorithm.CHA, JdkMode.EXCLUDE, EntryPointStrategy.RULE_REACHABLE, 5, 5);
+
+  private final CallGraphAlgorithm callGraphAlgorithm;
+  private final JdkMode jdkMode;
+  private final EntryPointStrategy entryPointStrategy;
+  private final long overheadSeconds;
+  private final long millisPerMethod;
+
+  AnalysisStrategy(
+      CallGraphAlgorithm callGraphAlgorithm,
+      JdkMode jdkMode,
+      EntryPointStrategy entryPointStrategy,
+      long overheadSeconds,
+      long millisPerMethod) {
+    this.callGraphAlgorithm = callGraphAlgorithm;
+    this.jdkMode = jdkMode;
+    this.entryPointStrategy = entryPointStrategy;
+    this.overheadSeconds = overheadSeconds;
+    this.millisPerMethod = millisPerMethod;
+  }
+
+  public CallGraphAlgorithm getCallGraphAlgorithm() {
+    return callGraphAlgorithm;
+  }
+
+  public JdkMode getJdkMode() {
+    return jdkMode;
+  }
+
+  public EntryPointStrategy getEntryPointStrategy() {
+    return entryPointStrategy;
+  }
+
+  /**
+   * Estimates the analysis time of this strategy for the given input.
+   *
+   * @param metrics The size of the input
+   * @return The estimated analysis time
+   */
+  public Duration estimate(InputMetrics metrics) {
+    return Duration.ofSeconds(overheadSeconds).plusMillis(millisPerMethod * metrics.methodCount());
+  }
+
+  /**
+   * Selects the most precise strategy whose estimated analysis time fits the budget, or the
+   * cheapest strategy if none fits.
+   *
+   * @param metrics The size of the input
+   * @param timeBudget The time budget for the analysis
+   * @return The selected strategy
+   */
+  public static AnalysisStrategy select(InputMetrics metrics, Duration timeBudget) {
+    for (AnalysisStrategy strategy : values()) {
+      if (strategy.estimate(metrics).compareTo(timeBudget) <= 0) {
+        return strategy;
+      }
+    }
+    return FAST;
+  }
+}
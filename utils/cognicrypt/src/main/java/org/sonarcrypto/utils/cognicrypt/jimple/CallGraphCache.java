@@ -0,0 +1,206 @@
+package org.sonarcrypto.utils.cognicrypt.jimple;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.hash.Hashing;
+import com.google.common.io.MoreFiles;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import sootup.callgraph.CallGraph;
+import sootup.callgraph.GraphBasedCallGraph;
+import sootup.callgraph.MutableCallGraph;
+import sootup.core.jimple.common.stmt.InvokableStmt;
+import sootup.core.jimple.common.stmt.Stmt;
+import sootup.core.signatures.MethodSignature;
+import sootup.java.core.JavaSootMethod;
+
+/**
+ * Stores a call graph in a directory and restores it on a later scan if the analysis input has not
+ * changed.
+ *
+ * <p>The input is fingerprinted by the content hashes of all Jimple files and a key describing the
+ * analysis settings. A cached call graph is only reused if all of them match: with RTA, a single
+ * changed class may instantiate new types and thereby add edges anywhere in the program, so
+ * reusing the edges of unchanged classes would not be sound.
+ *
+ * <p>Calls are stored as caller signature, index of the invoke statement in the caller's body and
+ * callee signature, and are attached to the statements of the current view when restored.
+ */
+final class CallGraphCache {
+  private static final Logger LOGGER = LoggerFactory.getLogger(CallGraphCache.class);
+
+  private static final String FILE_NAME = "callgraph.json";
+  private static final int FORMAT_VERSION = 1;
+
+  private final Path directory;
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  CallGraphCache(Path directory) {
+    this.directory = directory;
+  }
+
+  record CachedCall(String source, int stmtIndex, String target) {}
+
+  record CachedCallGraph(
+      int version,
+      String settingsKey,
+      Map<String, String> classHashes,
+      List<String> entryMethods,
+      List<String> methods,
+      List<CachedCall> calls) {}
+
+  /**
+   * Computes the content hashes of all Jimple files below the given directory.
+   *
+   * @param applicationPath The Jimple directory
+   * @return The hashes, keyed by the file path relative to the directory
+   * @throws IOException if a file cannot be read
+   */
+  static Map<String, String> hashClasses(Path applicationPath) throws IOException {
+    Map<String, String> hashes = new TreeMap<>();
+    try (Stream<Path> files = Files.walk(applicationPath)) {
+      for (Path file : (Iterable<Path>) files::iterator) {
+        if (Files.isRegularFile(file) && file.toString().endsWith(".jimple")) {
+          hashes.put(
+              applicationPath.relativize(file).toString(),
+              MoreFiles.asByteSource(file).hash(Hashing.sha256()).toString());
+        }
+      }
+    }
+    return hashes;
+  }
+
+  /**
+   * Restores the cached call graph if it was built with the same settings and input.
+   *
+   * @param settingsKey The key describing the analysis settings
+   * @param classHashes The current content hashes of the Jimple files
+   * @param view The view providing the method bodies
+   * @return The restored call graph, or empty if there is no matching cached call graph
+   */
+  Optional<CallGraph> load(
+      String settingsKey, Map<String, String> classHashes, JimpleConvertingView view) {
+    Path file = directory.resolve(FILE_NAME);
+    if (!Files.isRegularFile(file)) {
+      return Optional.empty();
+    }
+
+    CachedCallGraph cached;
+    try {
+      cached = objectMapper.readValue(file.toFile(), CachedCallGraph.class);
+    } catch (IOException e) {
+      LOGGER.warn("Failed to read cached call graph {}: {}", file, e.getMessage());
+      return Optional.empty();
+    }
+    if (cached.version() != FORMAT_VERSION
+        || !cached.settingsKey().equals(settingsKey)
+        || !cached.classHashes().equals(classHashes)) {
+      LOGGER.debug("Cached call graph {} is outdated", file);
+      return Optional.empty();
+    }
+
+    var factory = view.getIdentifierFactory();
+    MutableCallGraph callGraph =
+        new GraphBasedCallGraph(
+            cached.entryMethods().stream().map(factory::parseMethodSignature).toList());
+    for (String method : cached.methods()) {
+      callGraph.addMethod(factory.parseMethodSignature(method));
+    }
+
+    Map<MethodSignature, List<Stmt>> bodies = new HashMap<>();
+    for (CachedCall call : cached.calls()) {
+      MethodSignature source = factory.parseMethodSignature(call.source());
+      List<Stmt> stmts = bodies.computeIfAbsent(source, s -> stmtsOf(view, s));
+      if (call.stmtIndex() < 0
+          || call.stmtIndex() >= stmts.size()
+          || !(stmts.get(call.stmtIndex()) instanceof InvokableStmt invokableStmt)) {
+        LOGGER.warn("Cached call graph {} does not match the input, ignoring it", file);
+        return Optional.empty();
+      }
+      callGraph.addCall(source, factory.parseMethodSignature(call.target()), invokableStmt);
+    }
+    return Optional.of(callGraph);
+  }
+
+  /**
+   * Stores the call graph, replacing any previously cached one. A call graph with a call whose
+   * statement is not in the body of its caller in the view is not stored, as it could not be
+   * restored.
+   *
+   * @param settingsKey The key describing the analysis settings
+   * @param classHashes The content hashes of the Jimple files the call graph was built from
+   * @param callGraph The call graph
+   * @param view The view the call graph was built with
+   * @return {@code true} if the call graph was stored
+   * @throws IOException if writing fails
+   */
+  boolean store(
+      String settingsKey,
+      Map<String, String> classHashes,
+      CallGraph callGraph,
+      JimpleConvertingView view)
+      throws IOException {
+    List<String> methods = new ArrayList<>();
+    List<CachedCall> calls = new ArrayList<>();
+    for (MethodSignature source : callGraph.getMethodSignatures()) {
+      methods.add(source.toString());
+      Map<Stmt, Integer> stmtIndices = null;
+      for (CallGraph.Call call : callGraph.callsFrom(source)) {
+        if (stmtIndices == null) {
+          stmtIndices = indexStmts(stmtsOf(view, source));
+        }
+        Integer stmtIndex = stmtIndices.get(call.getInvokableStmt());
+        if (stmtIndex == null) {
+          LOGGER.debug(
+              "Not caching the call graph, the call from {} to {} is not in the caller's body",
+              source,
+              call.getTargetMethodSignature());
+          return false;
+        }
+        calls.add(
+            new CachedCall(
+                source.toString(), stmtIndex, call.getTargetMethodSignature().toString()));
+      }
+    }
+
+    CachedCallGraph cached =
+        new CachedCallGraph(
+            FORMAT_VERSION,
+            settingsKey,
+            classHashes,
+            callGraph.getEntryMethods().stream().map(MethodSignature::toString).toList(),
+            methods,
+            calls);
+
+    Files.createDirectories(directory);
+    Path tempFile = Files.createTempFile(directory, FILE_NAME, ".tmp");
+    objectMapper.writeValue(tempFile.toFile(), cached);
+    Files.move(
+        tempFile,
+        directory.resolve(FILE_NAME),
+        StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE);
+    return true;
+  }
+
+  /** Maps each statement to its index, by identity, as equal statements may occur repeatedly. */
+  private static Map<Stmt, Integer> indexStmts(List<Stmt> stmts) {
+    Map<Stmt, Integer> indices = new IdentityHashMap<>(stmts.size() * 2);
+    for (int i = 0; i < stmts.size(); i++) {
+      indices.putIfAbsent(stmts.get(i), i);
+    }
+    return indices;
+  }
+
+  private static List<Stmt> stmtsOf(JimpleConvertingView view, MethodSignature signature) {
+    return view.getMethod(signature)
+        .filter(JavaSootMethod::hasBody)
+        .map(method -> method.getBody().getStmts())
+        .orElse(List.of());
+  }
+}
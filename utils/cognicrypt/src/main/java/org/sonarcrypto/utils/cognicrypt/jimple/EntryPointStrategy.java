@@ -0,0 +1,13 @@
+package org.sonarcrypto.utils.cognicrypt.jimple;
+
+/** Selects the entry points of the call graph built by {@link JimpleFrameworkSetup}. */
+public enum EntryPointStrategy {
+  /** Every method with a body in every application class. */
+  ALL_METHODS,
+
+  /**
+   * Only application methods from which a call into a class covered by a CrySL rule may be
+   * reachable. The call graph is reduced to the crypto-relevant part of the program.
+   */
+  RULE_REACHABLE
+}
@@ -0,0 +1,67 @@
+package org.sonarcrypto.utils.cognicrypt.jimple;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+/**
+ * Size of a Jimple input, measured from the file system without parsing it.
+ *
+ * @param classCount The number of Jimple files, i.e. classes
+ * @param methodCount The number of methods with a body
+ */
+public record InputMetrics(long classCount, long methodCount) {
+
+  /**
+   * Measures the Jimple files below the given directory.
+   *
+   * <p>Methods are counted by their headers: apart from switch heads, every line of a Jimple body
+   * ends with {@code ;}, {@code :} or a brace, and so do fields and abstract methods. A line with
+   * an opening parenthesis that ends otherwise declares a method with a body.
+   *
+   * @param applicationPath The Jimple directory
+   * @return The metrics
+   * @throws IOException if the directory cannot be read
+   */
+  public static InputMetrics measure(Path applicationPath) throws IOException {
+    long classCount = 0;
+    long methodCount = 0;
+    try (Stream<Path> files = Files.walk(applicationPath)) {
+      for (Path file : (Iterable<Path>) files::iterator) {
+        if (Files.isRegularFile(file) && file.toString().endsWith(".jimple")) {
+          classCount++;
+          methodCount += countMethods(file);
+        }
+      }
+    }
+    return new InputMetrics(classCount, methodCount);
+  }
+
+  private static long countMethods(Path jimpleFile) throws IOException {
+    long methodCount = 0;
+    try (BufferedReader reader = Files.newBufferedReader(jimpleFile)) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (isMethodHeader(line.strip())) {
+          methodCount++;
+        }
+      }
+    }
+    return methodCount;
+  }
+
+  private static boolean isMethodHeader(String line) {
+    if (line.endsWith("{")) {
+      // Header and opening brace on one line
+      line = line.substring(0, line.length() - 1).stripTrailing();
+    }
+    return line.indexOf('(') > 0
+        && !line.endsWith(";")
+        && !line.endsWith(":")
+        && !line.startsWith("switch")
+        && !line.startsWith("lookupswitch")
+        && !line.startsWith("tableswitch");
+  }
+}
@@ -0,0 +1,81 @@
+package org.sonarcrypto.utils.cognicrypt.jimple;
+
+import java.util.Set;
+import sootup.core.types.ClassType;
+
+/** Selects how much of the Java runtime is visible to the analysis of Jimple input. */
+public enum JdkMode {
+  /** No runtime classes; fastest, but calls into the JDK cannot be resolved. */
+  EXCLUDE,
+
+  /**
+   * Only the runtime classes of the JCA/JCE API and the core types its type hierarchy and method
+   * signatures build on, e.g. {@code java.util.Random} as superclass of {@code SecureRandom}. Calls
+   * into other core classes, e.g. collections, are not resolved, like in {@link #EXCLUDE}.
+   */
+  CRYPTO_API,
+
+  /** The complete runtime. */
+  FULL;
+
+  /** The supertypes of the crypto API classes and the core types of their method signatures. */
+  private static final Set<String> CRYPTO_API_CORE_TYPES =
+      Set.of(
+          // java.lang
+          "java.lang.Object",
+          "java.lang.String",
+          "java.lang.CharSequence",
+          "java.lang.Comparable",
+          "java.lang.Cloneable",
+          "java.lang.AutoCloseable",
+          "java.lang.Number",
+          "java.lang.Throwable",
+          "java.lang.Exception",
+          "java.lang.RuntimeException",
+          "java.lang.IllegalArgumentException",
+          "java.lang.IllegalStateException",
+          "java.lang.constant.Constable",
+          "java.lang.constant.ConstantDesc",
+          // Random is the superclass of SecureRandom, Properties the superclass of Provider
+          "java.util.Random",
+          "java.util.Properties",
+          "java.util.Hashtable",
+          "java.util.Dictionary",
+          "java.util.Map",
+          // Cipher streams, key stores and certificates
+          "java.io.Serializable",
+          "java.io.Closeable",
+          "java.io.Flushable",
+          "java.io.InputStream",
+          "java.io.OutputStream",
+          "java.io.FilterInputStream",
+          "java.io.FilterOutputStream",
+          "java.io.IOException",
+          // Buffer variants of update() and doFinal(), numbers of key specs
+          "java.nio.Buffer",
+          "java.nio.ByteBuffer",
+          "java.math.BigInteger");
+
+  private static final Set<String> CRYPTO_API_PACKAGE_PREFIXES =
+      Set.of("java.security", "javax.crypto", "javax.net.ssl", "javax.security");
+
+  /**
+   * Tells whether the given runtime class is visible in this mode.
+   *
+   * @param type The runtime class
+   * @return Whether the class may be resolved from the runtime
+   */
+  public boolean includes(ClassType type) {
+    return switch (this) {
+      case EXCLUDE -> false;
+      case FULL -> true;
+      case CRYPTO_API -> {
+        String packageName = type.getPackageName().getName();
+        yield CRYPTO_API_CORE_TYPES.contains(type.getFullyQualifiedName())
+            || CRYPTO_API_PACKAGE_PREFIXES.stream()
+                .anyMatch(
+                    prefix -> packageName.equals(prefix) || packageName.startsWith(prefix + "."));
+      }
+    };
+  }
+}
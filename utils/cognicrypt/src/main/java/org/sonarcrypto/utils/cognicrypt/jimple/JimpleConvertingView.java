@@ -2,11 +2,21 @@ package org.sonarcrypto.utils.cognicrypt.jimple;
 
 import boomerang.scope.sootup.BoomerangPreInterceptor;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.jspecify.annotations.NonNull;
 import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
@@ -15,119 +25,528 @@ import org.sonarcrypto.utils.cognicrypt.LocationReplacerInterceptor;
 import org.sonarcrypto.utils.jimple.mapper.LineMapping;
 import org.sonarcrypto.utils.jimple.mapper.LineMappingCollection;
 import sootup.core.frontend.AbstractClassSource;
+import sootup.core.frontend.BodySource;
 import sootup.core.frontend.OverridingBodySource;
 import sootup.core.frontend.OverridingClassSource;
 import sootup.core.frontend.ResolveException;
+import sootup.core.frontend.SootClassSource;
 import sootup.core.inputlocation.AnalysisInputLocation;
 import sootup.core.jimple.common.stmt.*;
 import sootup.core.jimple.javabytecode.stmt.*;
 import sootup.core.model.*;
+import sootup.core.signatures.MethodSignature;
 import sootup.core.types.ClassType;
 import sootup.java.core.*;
 import sootup.java.core.views.JavaView;
+import sootup.jimple.frontend.JimpleAnalysisInputLocation;
 
 public class JimpleConvertingView extends JavaView {
 
   private static final Logger log = LoggerFactory.getLogger(JimpleConvertingView.class);
 
+  private static final String JIMPLE_SUFFIX = ".jimple";
+
+  private static final String CLASS_SUFFIX = ".class";
+
+  private static final URI RUNTIME_IMAGE = URI.create("jrt:/");
+
+  /** One build per class type; threads asking for a class that is being built wait for it. */
+  private final Map<ClassType, FutureTask<JavaSootClass>> classBuilds = new ConcurrentHashMap<>();
+
+  /** Wrapped Jimple class sources, so that each Jimple class is wrapped and resolved only once. */
+  private final Map<ClassType, WrappingSootClassSource> wrappedSources = new ConcurrentHashMap<>();
+
+  /**
+   * The input location providing each class type; an empty value marks a type that no input
+   * location provides. Application class types are indexed up front, all others on first lookup.
+   */
+  private final Map<ClassType, Optional<AnalysisInputLocation>> locationIndex =
+      new ConcurrentHashMap<>();
+
+  /** Input locations whose classes are not indexed up front and have to be probed. */
+  private final List<AnalysisInputLocation> probedLocations = new ArrayList<>();
+
+  /** Application class types in the order of their input locations. */
+  private final List<ClassType> applicationClassTypes = new ArrayList<>();
+
+  /**
+   * Restricts the class types that are looked up in the probed (library) input locations, or null
+   * if all of their classes are visible.
+   */
+  private final @Nullable Predicate<ClassType> libraryTypeFilter;
+
   public JimpleConvertingView(@NonNull List<AnalysisInputLocation> inputLocations) {
     super(inputLocations);
+    this.libraryTypeFilter = null;
+    indexInputLocations();
   }
 
   public JimpleConvertingView(@NonNull AnalysisInputLocation inputLocation) {
     super(inputLocation);
+    this.libraryTypeFilter = null;
+    indexInputLocations();
+  }
+
+  /**
+   * Creates a view that only resolves library classes accepted by the given filter, e.g. to expose
+   * only part of the Java runtime. Application classes are not filtered. The type hierarchy covers
+   * the accepted classes of the running Java runtime, see {@link #getClasses()}.
+   *
+   * @param inputLocations The input locations
+   * @param libraryTypeFilter The filter for classes of library input locations
+   */
+  public JimpleConvertingView(
+      @NonNull List<AnalysisInputLocation> inputLocations,
+      @NonNull Predicate<ClassType> libraryTypeFilter) {
+    super(inputLocations);
+    this.libraryTypeFilter = libraryTypeFilter;
+    indexInputLocations();
+  }
+
+  /**
+   * Indexes the classes of all application input locations. Library locations, e.g. the JDK, are
+   * too large to enumerate and are probed in order on lookup instead. Application locations take
+   * precedence over library locations; among them, the first location providing a type wins.
+   *
+   * <p>Jimple locations are indexed by file name, as the Jimple frontend looks classes up by file
+   * name as well, so that no class is parsed before it is requested.
+   */
+  private void indexInputLocations() {
+    for (AnalysisInputLocation location : inputLocations) {
+      if (location.getSourceType() != SourceType.Application) {
+        probedLocations.add(location);
+        continue;
+      }
+      if (location instanceof JimpleAnalysisInputLocation jimpleLocation) {
+        Optional<List<String>> classNames = jimpleClassNames(jimpleLocation.getPath());
+        if (classNames.isPresent()) {
+          for (String className : classNames.get()) {
+            index(getIdentifierFactory().getClassType(className), location);
+          }
+          continue;
+        }
+      }
+      location
+          .getClassSources(this)
+          .forEach(
+              source -> {
+                index(source.getClassType(), location);
+                // Keep the parsed source, so the class is not parsed again when it is built
+                if (source instanceof OverridingClassSource overridingClassSource) {
+                  wrap(overridingClassSource);
+                }
+              });
+    }
+    log.debug(
+        "Indexed {} application classes, probing {} other input locations",
+        applicationClassTypes.size(),
+        probedLocations.size());
+  }
+
+  private void index(ClassType type, AnalysisInputLocation location) {
+    if (locationIndex.putIfAbsent(type, Optional.of(location)) == null) {
+      applicationClassTypes.add(type);
+    }
+  }
+
+  /**
+   * Lists the class names of the Jimple files below a directory, in file order. Both layouts of
+   * the Jimple frontend are supported: {@code com.example.Main.jimple} and {@code
+   * com/example/Main.jimple}.
+   *
+   * @param root The directory of the Jimple location
+   * @return The class names, or empty if the directory cannot be listed
+   */
+  private static Optional<List<String>> jimpleClassNames(Path root) {
+    if (!Files.isDirectory(root)) {
+      return Optional.empty();
+    }
+    try (Stream<Path> files = Files.walk(root)) {
+      return Optional.of(
+          files
+              .filter(file -> file.toString().endsWith(JIMPLE_SUFFIX) && Files.isRegularFile(file))
+              .map(root::relativize)
+              .sorted()
+              .map(jimpleFile -> toClassName(jimpleFile, JIMPLE_SUFFIX))
+              .toList());
+    } catch (IOException | UncheckedIOException e) {
+      log.warn("Failed to list the Jimple files in {}, parsing them instead", root, e);
+      return Optional.empty();
+    }
+  }
+
+  private static String toClassName(Path relativeFile, String suffix) {
+    StringJoiner className = new StringJoiner(".");
+    for (Path segment : relativeFile) {
+      className.add(segment.toString());
+    }
+    String name = className.toString();
+    return name.substring(0, name.length() - suffix.length());
   }
 
   @Override
-  protected synchronized @NonNull JavaSootClass buildClassFrom(AbstractClassSource classSource) {
+  public @NonNull Optional<JavaSootClass> getClass(@NonNull ClassType type) {
+    FutureTask<JavaSootClass> build = classBuilds.get(type);
+    if (build != null) {
+      return Optional.of(awaitBuild(build));
+    }
+    return getClassSource(type).map(this::buildClassFrom);
+  }
+
+  @Override
+  protected @NonNull JavaSootClass buildClassFrom(AbstractClassSource classSource) {
+    ClassType classType = classSource.getClassType();
+    FutureTask<JavaSootClass> build = classBuilds.get(classType);
+    if (build == null) {
+      FutureTask<JavaSootClass> newBuild = new FutureTask<>(() -> createClass(classSource));
+      build = classBuilds.putIfAbsent(classType, newBuild);
+      if (build == null) {
+        build = newBuild;
+        newBuild.run();
+      }
+    }
+    return awaitBuild(build);
+  }
+
+  private JavaSootClass createClass(AbstractClassSource classSource) {
     ClassType classType = classSource.getClassType();
+    synchronized (cache) {
+      if (cache.hasClass(classType)) {
+        return (JavaSootClass) cache.getClass(classType);
+      }
+    }
+
     JavaSootClass theClass;
-    if (cache.hasClass(classType)) {
-      theClass = (JavaSootClass) cache.getClass(classType);
+    if (classSource instanceof JavaSootClassSource) {
+      theClass = (JavaSootClass) classSource.buildClass(SourceType.Application);
+    } else if (classSource instanceof OverridingClassSource) {
+      theClass = wrap((OverridingClassSource) classSource).buildClass(SourceType.Application);
     } else {
-      if (classSource instanceof JavaSootClassSource) {
-        theClass = (JavaSootClass) classSource.buildClass(SourceType.Application);
-      } else if (classSource instanceof OverridingClassSource) {
-        WrappingSootClassSource wrappingSootClassSource =
-            new WrappingSootClassSource((OverridingClassSource) classSource);
-        theClass = wrappingSootClassSource.buildClass(SourceType.Application);
-      } else {
-        throw new RuntimeException(
-            "Unsupported class source type: " + classSource.getClass().getName());
-      }
+      throw new RuntimeException(
+          "Unsupported class source type: " + classSource.getClass().getName());
+    }
+
+    synchronized (cache) {
       cache.putClass(classType, theClass);
     }
     return theClass;
   }
 
+  private static JavaSootClass awaitBuild(FutureTask<JavaSootClass> build) {
+    try {
+      return build.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Interrupted while waiting for a class to be built", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      if (e.getCause() instanceof Error error) {
+        throw error;
+      }
+      throw new RuntimeException(e.getCause());
+    }
+  }
+
+  /**
+   * Builds all application classes and resolves their methods in parallel, so that later lookups,
+   * e.g. during call graph construction, are served from the cache.
+   */
+  public void warmUp() {
+    applicationClassTypes.parallelStream()
+        .forEach(type -> getClass(type).ifPresent(SootClass::getMethods));
+    log.debug("Warmed up {} application classes", applicationClassTypes.size());
+  }
+
+  /**
+   * Returns the application classes and the library classes visible to the analysis. The type
+   * hierarchy is built from them. Application classes are taken from the index, so that no Jimple
+   * file is parsed a second time.
+   *
+   * <p>Without a library type filter, all classes of the library input locations are built, as by
+   * {@link JavaView}. With a filter, the library locations are not enumerated, since reading every
+   * class of the Java runtime only to drop most of them is what the filter avoids. Instead, the
+   * runtime's class files are listed by name, and only the accepted classes are built, together
+   * with the library classes built so far.
+   */
+  @Override
+  public @NonNull Stream<JavaSootClass> getClasses() {
+    Map<ClassType, JavaSootClass> classes = new LinkedHashMap<>();
+    for (ClassType type : applicationClassTypes) {
+      getClass(type).ifPresent(sootClass -> classes.put(type, sootClass));
+    }
+
+    if (libraryTypeFilter == null) {
+      for (AnalysisInputLocation location : probedLocations) {
+        location
+            .getClassSources(this)
+            .forEach(
+                source ->
+                    classes.computeIfAbsent(source.getClassType(), type -> buildClassFrom(source)));
+      }
+    } else if (!probedLocations.isEmpty()) {
+      Set<ClassType> candidates = new LinkedHashSet<>(classBuilds.keySet());
+      runtimeClassNames().stream()
+          .map(getIdentifierFactory()::getClassType)
+          .filter(libraryTypeFilter)
+          .forEach(candidates::add);
+      candidates.removeAll(classes.keySet());
+      candidates.parallelStream()
+          .map(this::getClass)
+          .flatMap(Optional::stream)
+          .toList()
+          .forEach(sootClass -> classes.putIfAbsent(sootClass.getType(), sootClass));
+    }
+    log.debug("Providing {} classes for the type hierarchy", classes.size());
+    return classes.values().stream();
+  }
+
+  /**
+   * Lists the classes of the running Java runtime by the names of their class files, without
+   * reading them.
+   *
+   * @return The fully qualified class names, or an empty list if the runtime cannot be listed
+   */
+  private static List<String> runtimeClassNames() {
+    try (Stream<Path> files =
+        Files.walk(FileSystems.getFileSystem(RUNTIME_IMAGE).getPath("/modules"))) {
+      return files
+          .filter(file -> file.getNameCount() > 2 && file.toString().endsWith(CLASS_SUFFIX))
+          // modules/<module>/<package path>/<class>.class
+          .map(file -> file.subpath(2, file.getNameCount()))
+          .map(classFile -> toClassName(classFile, CLASS_SUFFIX))
+          .filter(name -> !name.endsWith("module-info") && !name.endsWith("package-info"))
+          .toList();
+    } catch (IOException | RuntimeException e) {
+      log.warn("Failed to list the classes of the Java runtime", e);
+      return List.of();
+    }
+  }
+
+  private WrappingSootClassSource wrap(OverridingClassSource classSource) {
+    return wrappedSources.computeIfAbsent(
+        classSource.getClassType(), type -> new WrappingSootClassSource(classSource));
+  }
+
   @Override
   protected @NonNull Optional<JavaSootClassSource> getClassSource(@NonNull ClassType type) {
-    return inputLocations.parallelStream()
-        .map(location -> location.getClassSource(type, this))
-        .filter(Optional::isPresent)
-        // like javas behaviour: if multiple matching Classes(ClassTypes) are found on the
-        // classpath the first is returned (see splitpackage)
-        .limit(1)
-        .map(Optional::get)
-        .map(
-            classSource -> {
-              if (classSource instanceof JavaSootClassSource) {
-                return (JavaSootClassSource) classSource;
-              } else if (classSource instanceof OverridingClassSource) {
-                return new WrappingSootClassSource((OverridingClassSource) classSource);
-              } else {
-                return null;
-              }
-            })
-        .filter(Objects::nonNull)
-        .findAny();
+    WrappingSootClassSource wrapped = wrappedSources.get(type);
+    if (wrapped != null) {
+      return Optional.of(wrapped);
+    }
+
+    Optional<AnalysisInputLocation> indexed = locationIndex.get(type);
+    if (indexed != null) {
+      return indexed
+          .flatMap(location -> location.getClassSource(type, this))
+          .map(this::toJavaSource);
+    }
+    if (probedLocations.isEmpty()
+        || (libraryTypeFilter != null && !libraryTypeFilter.test(type))) {
+      // Every input location is indexed or the type is filtered, so the type is unknown
+      return Optional.empty();
+    }
+
+    for (AnalysisInputLocation location : probedLocations) {
+      Optional<? extends SootClassSource> classSource = location.getClassSource(type, this);
+      if (classSource.isPresent()) {
+        locationIndex.put(type, Optional.of(location));
+        return classSource.map(this::toJavaSource);
+      }
+    }
+    locationIndex.put(type, Optional.empty());
+    return Optional.empty();
   }
 
-  private class WrappingSootClassSource extends JavaSootClassSource {
-    private final SootClass resolvedClass;
+  private @Nullable JavaSootClassSource toJavaSource(SootClassSource classSource) {
+    if (classSource instanceof JavaSootClassSource javaSootClassSource) {
+      return javaSootClassSource;
+    } else if (classSource instanceof OverridingClassSource overridingClassSource) {
+      return wrap(overridingClassSource);
+    } else {
+      return null;
+    }
+  }
+
+  /**
+   * Returns the number of classes built by this view so far, including classes from library input
+   * locations.
+   *
+   * @return The number of built classes
+   */
+  public int getLoadedClassCount() {
+    return classBuilds.size();
+  }
+
+  /**
+   * Returns the application class types known to this view, without building any classes.
+   *
+   * @return The application class types in the order of their input locations
+   */
+  public List<ClassType> getApplicationClassTypes() {
+    return Collections.unmodifiableList(applicationClassTypes);
+  }
+
+  /**
+   * Returns the name of the source file a class was converted from, as recorded in its line
+   * mappings. This differs from the class name for nested and non-public top-level classes.
+   *
+   * @param type The class type
+   * @return The source file name, e.g. {@code Outer.java}, or empty if the class was not read from
+   *     Jimple by this view or has no mappings
+   */
+  public Optional<String> getSourceFileName(ClassType type) {
+    WrappingSootClassSource wrapped = wrappedSources.get(type);
+    return wrapped != null
+        ? Optional.ofNullable(wrapped.mappings.get().sourceFileName())
+        : Optional.empty();
+  }
+
+  /**
+   * Returns the body of a method before the location replacement and the Boomerang
+   * pre-interception, without triggering them or caching the body in the method. Intended for
+   * cheap pre-passes over all methods, most of which the analysis never reaches.
+   *
+   * @param method A method of this view
+   * @return The body as parsed from Jimple, or the regular body for methods not read from Jimple
+   */
+  Body getUninterceptedBody(JavaSootMethod method) {
+    if (method.getBodySource() instanceof InterceptingBodySource interceptingBodySource) {
+      return interceptingBodySource.parseBody();
+    }
+    return method.getBody();
+  }
+
+  /**
+   * Line mappings of a wrapped class, grouped by element type and keyed by Jimple line, and the
+   * name of its source file, if known.
+   */
+  private record Mappings(
+      @Nullable String sourceFileName,
+      Map<Integer, LineMapping> classMappings,
+      Map<Integer, LineMapping> methodMappings,
+      Map<Integer, LineMapping> fieldMappings,
+      Map<Integer, LineMapping> statementMappings) {
+
+    private static final Mappings EMPTY =
+        new Mappings(
+            null,
+            Collections.emptyMap(),
+            Collections.emptyMap(),
+            Collections.emptyMap(),
+            Collections.emptyMap());
+
+    private static Mappings of(LineMappingCollection collection) {
+      Map<Integer, LineMapping> classMap = new HashMap<>();
+      Map<Integer, LineMapping> methodMap = new HashMap<>();
+      Map<Integer, LineMapping> fieldMap = new HashMap<>();
+      Map<Integer, LineMapping> stmtMap = new HashMap<>();
+      for (LineMapping m : collection.getMappings()) {
+        switch (m.getElementType()) {
+          case CLASS -> classMap.put(m.getJimpleLine(), m);
+          case METHOD -> methodMap.put(m.getJimpleLine(), m);
+          case FIELD -> fieldMap.put(m.getJimpleLine(), m);
+          case STATEMENT -> stmtMap.put(m.getJimpleLine(), m);
+        }
+      }
+      return new Mappings(
+          collection.getSourceFileName(),
+          Collections.unmodifiableMap(classMap),
+          Collections.unmodifiableMap(methodMap),
+          Collections.unmodifiableMap(fieldMap),
+          Collections.unmodifiableMap(stmtMap));
+    }
+  }
+
+  /**
+   * Body source that runs the location replacement and the Boomerang pre-interception when the
+   * body is first requested, and keeps the result. Methods whose bodies are never requested, e.g.
+   * because the call graph does not reach them, are never intercepted.
+   */
+  private class InterceptingBodySource implements BodySource {
+    private final SootMethod method;
+    private final BodySource preInterceptedBodySource;
+    private final Supplier<Body> body;
+
+    private InterceptingBodySource(
+        SootMethod method,
+        BodySource preInterceptedBodySource,
+        Map<Integer, LineMapping> statementMappings) {
+      this.method = method;
+      this.preInterceptedBodySource = preInterceptedBodySource;
+      this.body = Suppliers.memoize(() -> interceptBody(statementMappings));
+    }
 
-    private final Map<Integer, LineMapping> classMappings;
-    private final Map<Integer, LineMapping> methodMappings;
-    private final Map<Integer, LineMapping> fieldMappings;
-    private final Map<Integer, LineMapping> statementMappings;
+    private Body interceptBody(Map<Integer, LineMapping> statementMappings) {
+      // The relocated graph is built directly from the parsed body and serves as the builder's
+      // graph, so the Boomerang pre-interception works on it without another copy. Nothing to
+      // relocate without statement mappings.
+      Body.BodyBuilder builder =
+          statementMappings.isEmpty()
+              ? Body.builder(method.getBody(), method.getModifiers())
+              : new LocationReplacerInterceptor(statementMappings)
+                  .relocatedBuilder(method.getBody(), method.getModifiers());
+      new BoomerangPreInterceptor().interceptBody(builder, JimpleConvertingView.this);
+      return builder.build();
+    }
+
+    /** Parses the body anew, without intercepting it. */
+    private Body parseBody() {
+      try {
+        return preInterceptedBodySource.resolveBody(method.getModifiers());
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    @Override
+    public @NonNull Body resolveBody(@NonNull Iterable<MethodModifier> modifiers) {
+      return body.get();
+    }
+
+    @Override
+    public @Nullable Object resolveAnnotationsDefaultValue() {
+      return preInterceptedBodySource.resolveAnnotationsDefaultValue();
+    }
+
+    @Override
+    public @NonNull MethodSignature getSignature() {
+      return method.getSignature();
+    }
+  }
+
+  /**
+   * Wraps a parsed Jimple class and replaces the Jimple positions with the original source
+   * positions. The wrapped class and the mappings are only resolved when first needed.
+   */
+  private class WrappingSootClassSource extends JavaSootClassSource {
+    private final Supplier<SootClass> resolvedClass;
+    private final Supplier<Mappings> mappings;
 
     private WrappingSootClassSource(OverridingClassSource classSource) {
       super(
           classSource.getAnalysisInputLocation(),
           classSource.getClassType(),
           classSource.getSourcePath());
-      resolvedClass =
+      resolvedClass = Suppliers.memoize(() -> resolveClass(classSource));
+      mappings = Suppliers.memoize(() -> loadMappings(classSource));
+    }
+
+    private SootClass resolveClass(OverridingClassSource classSource) {
+      SootClass sootClass =
           classSource.buildClass(classSource.getAnalysisInputLocation().getSourceType());
 
       log.debug(
           "Wrapped class source of type {} resolved to class {}",
           classSource.getClass().getName(),
-          resolvedClass.getName());
+          sootClass.getName());
+      return sootClass;
+    }
 
+    private Mappings loadMappings(OverridingClassSource classSource) {
       LineMappingCollection loaded = readMapping(classSource.getSourcePath());
-      if (loaded != null) {
-        Map<Integer, LineMapping> classMap = new HashMap<>();
-        Map<Integer, LineMapping> methodMap = new HashMap<>();
-        Map<Integer, LineMapping> fieldMap = new HashMap<>();
-        Map<Integer, LineMapping> stmtMap = new HashMap<>();
-        for (LineMapping m : loaded.getMappings()) {
-          switch (m.getElementType()) {
-            case CLASS -> classMap.put(m.getJimpleLine(), m);
-            case METHOD -> methodMap.put(m.getJimpleLine(), m);
-            case FIELD -> fieldMap.put(m.getJimpleLine(), m);
-            case STATEMENT -> stmtMap.put(m.getJimpleLine(), m);
-          }
-        }
-        classMappings = Collections.unmodifiableMap(classMap);
-        methodMappings = Collections.unmodifiableMap(methodMap);
-        fieldMappings = Collections.unmodifiableMap(fieldMap);
-        statementMappings = Collections.unmodifiableMap(stmtMap);
-      } else {
-        classMappings = Collections.emptyMap();
-        methodMappings = Collections.emptyMap();
-        fieldMappings = Collections.emptyMap();
-        statementMappings = Collections.emptyMap();
-      }
+      return loaded != null ? Mappings.of(loaded) : Mappings.EMPTY;
     }
 
     private @Nullable LineMappingCollection readMapping(@Nullable Path sourcePath) {
@@ -155,20 +574,17 @@ public class JimpleConvertingView extends JavaView {
     @Override
     public @NonNull Collection<? extends SootMethod> resolveMethods() throws ResolveException {
 
-      return resolvedClass.getMethods().stream()
+      Mappings mappings = this.mappings.get();
+      return resolvedClass.get().getMethods().stream()
           .map(
               m -> {
                 if (m.getBodySource() instanceof OverridingBodySource preInterceptedBodySource) {
-                  final BoomerangPreInterceptor interceptor = new BoomerangPreInterceptor();
-                  final LocationReplacerInterceptor locationInterceptor =
-                      new LocationReplacerInterceptor(statementMappings);
-                  Body.BodyBuilder builder = Body.builder(m.getBody(), m.getModifiers());
-                  locationInterceptor.interceptBody(builder, JimpleConvertingView.this);
-                  interceptor.interceptBody(builder, JimpleConvertingView.this);
-                  OverridingBodySource interceptedBodySource =
-                      preInterceptedBodySource.withBody(builder.build());
-
-                  LineMapping methodMapping = methodMappings.get(m.getPosition().getFirstLine());
+                  BodySource interceptedBodySource =
+                      new InterceptingBodySource(
+                          m, preInterceptedBodySource, mappings.statementMappings());
+
+                  LineMapping methodMapping =
+                      mappings.methodMappings().get(m.getPosition().getFirstLine());
                   Position methodPosition =
                       methodMapping != null
                           ? methodMapping.getSourcePosition().toSootUpPosition()
@@ -190,7 +606,8 @@ public class JimpleConvertingView extends JavaView {
 
     @Override
     public @NonNull Collection<? extends SootField> resolveFields() throws ResolveException {
-      return resolvedClass.getFields().stream()
+      Map<Integer, LineMapping> fieldMappings = mappings.get().fieldMappings();
+      return resolvedClass.get().getFields().stream()
           .map(
               f -> {
                 LineMapping mapping = fieldMappings.get(f.getPosition().getFirstLine());
@@ -206,53 +623,30 @@ public class JimpleConvertingView extends JavaView {
 
     @Override
     public @NonNull Set<ClassModifier> resolveModifiers() {
-      return resolvedClass.getModifiers();
+      return resolvedClass.get().getModifiers();
     }
 
     @Override
     public @NonNull Set<? extends ClassType> resolveInterfaces() {
-      return resolvedClass.getInterfaces();
+      return resolvedClass.get().getInterfaces();
     }
 
     @Override
     public @NonNull Optional<? extends ClassType> resolveSuperclass() {
-      return resolvedClass.getSuperclass();
+      return resolvedClass.get().getSuperclass();
     }
 
     @Override
     public @NonNull Optional<? extends ClassType> resolveOuterClass() {
-      return resolvedClass.getOuterClass();
+      return resolvedClass.get().getOuterClass();
     }
 
     @Override
     public @NonNull Position resolvePosition() {
-      return classMappings.values().stream()
+      return mappings.get().classMappings().values().stream()
           .findAny()
           .map(m -> m.getSourcePosition().toSootUpPosition())
-          .orElse(resolvedClass.getPosition());
-    }
-
-    @Override
-    public boolean equals(Object o) {
-      if (o == null || getClass() != o.getClass()) return false;
-      if (!super.equals(o)) return false;
-      WrappingSootClassSource that = (WrappingSootClassSource) o;
-      return Objects.equals(resolvedClass, that.resolvedClass)
-          && Objects.equals(classMappings, that.classMappings)
-          && Objects.equals(methodMappings, that.methodMappings)
-          && Objects.equals(fieldMappings, that.fieldMappings)
-          && Objects.equals(statementMappings, that.statementMappings);
-    }
-
-    @Override
-    public int hashCode() {
-      return Objects.hash(
-          super.hashCode(),
-          resolvedClass,
-          classMappings,
-          methodMappings,
-          fieldMappings,
-          statementMappings);
+          .orElseGet(() -> resolvedClass.get().getPosition());
     }
   }
 }
@@ -1,39 +1,45 @@
 package org.sonarcrypto.utils.cognicrypt.jimple;
 
 import boomerang.scope.DataFlowScope;
+import boomerang.scope.sootup.BoomerangPreInterceptor;
 import ch.qos.logback.classic.Level;
 import com.google.common.base.Stopwatch;
 import de.fraunhofer.iem.cryptoanalysis.scope.CryptoAnalysisScope;
 import de.fraunhofer.iem.cryptoanalysis.scope.CryptoAnalysisSootUpScope;
 import de.fraunhofer.iem.framework.FrameworkSetup;
 import de.fraunhofer.iem.scanner.ScannerSettings;
+import java.io.IOException;
+import java.net.URL;
 import java.nio.file.Path;
 import java.util.*;
+import org.jspecify.annotations.Nullable;
 import org.slf4j.LoggerFactory;
+import org.sonarcrypto.utils.cognicrypt.LocationReplacerInterceptor;
 import sootup.callgraph.CallGraph;
 import sootup.callgraph.CallGraphAlgorithm;
 import sootup.callgraph.ClassHierarchyAnalysisAlgorithm;
 import sootup.callgraph.RapidTypeAnalysisAlgorithm;
 import sootup.core.inputlocation.AnalysisInputLocation;
-import sootup.core.model.SootClass;
 import sootup.core.model.SootClassMember;
 import sootup.core.model.SourceType;
+import sootup.core.types.ClassType;
 import sootup.core.views.View;
 import sootup.java.bytecode.frontend.inputlocation.DefaultRuntimeAnalysisInputLocation;
 import sootup.java.core.JavaSootMethod;
-import sootup.java.core.views.JavaView;
 import sootup.jimple.frontend.JimpleAnalysisInputLocation;
 
 public class JimpleFrameworkSetup extends FrameworkSetup {
-  private JavaView view;
-  private final boolean includeJDK;
+  private JimpleConvertingView view;
+  private final JdkMode jdkMode;
+  private final EntryPointStrategy entryPointStrategy;
+  private final Set<String> ruleClassNames;
+  private @Nullable Path callGraphCacheDirectory;
 
   protected JimpleFrameworkSetup(
       String applicationPath,
       ScannerSettings.CallGraphAlgorithm callGraphAlgorithm,
       DataFlowScope dataFlowScope) {
-    super(applicationPath, callGraphAlgorithm, dataFlowScope);
-    includeJDK = false;
+    this(applicationPath, callGraphAlgorithm, dataFlowScope, false);
   }
 
   protected JimpleFrameworkSetup(
@@ -41,54 +47,231 @@ public class JimpleFrameworkSetup extends FrameworkSetup {
       ScannerSettings.CallGraphAlgorithm callGraphAlgorithm,
       DataFlowScope dataFlowScope,
       boolean includeJDK) {
+    this(
+        applicationPath,
+        callGraphAlgorithm,
+        dataFlowScope,
+        includeJDK ? JdkMode.FULL : JdkMode.EXCLUDE,
+        EntryPointStrategy.ALL_METHODS,
+        Set.of());
+  }
+
+  /**
+   * @param jdkMode How much of the Java runtime is visible to the analysis
+   * @param ruleClassNames The fully qualified names of the classes covered by the CrySL rules, used
+   *     by {@link EntryPointStrategy#RULE_REACHABLE}
+   */
+  protected JimpleFrameworkSetup(
+      String applicationPath,
+      ScannerSettings.CallGraphAlgorithm callGraphAlgorithm,
+      DataFlowScope dataFlowScope,
+      JdkMode jdkMode,
+      EntryPointStrategy entryPointStrategy,
+      Set<String> ruleClassNames) {
     super(applicationPath, callGraphAlgorithm, dataFlowScope);
-    this.includeJDK = includeJDK;
+    this.jdkMode = jdkMode;
+    this.entryPointStrategy = entryPointStrategy;
+    this.ruleClassNames = Set.copyOf(ruleClassNames);
+  }
+
+  /**
+   * Sets a directory in which the call graph is cached between scans. The cached call graph is
+   * reused as long as neither the Jimple input nor the settings change.
+   *
+   * @param callGraphCacheDirectory The cache directory, or null to disable caching
+   */
+  public void setCallGraphCacheDirectory(@Nullable Path callGraphCacheDirectory) {
+    this.callGraphCacheDirectory = callGraphCacheDirectory;
+  }
+
+  /**
+   * Uses an existing view instead of creating one in {@link #initializeFramework()}, e.g. a view
+   * that was already used to select the rules. It has to be created by {@link #createView} for the
+   * same application path and JDK mode.
+   *
+   * @param view The view
+   */
+  public void setView(JimpleConvertingView view) {
+    this.view = view;
   }
 
   @Override
   public void initializeFramework() {
+    if (view != null) {
+      LOGGER.info("Reusing SootUp view with {} classes.", view.getApplicationClassTypes().size());
+      return;
+    }
     LOGGER.info("Setting up SootUp...");
     Stopwatch watch = Stopwatch.createStarted();
+    view = createView(applicationPath, jdkMode);
+    watch.stop();
+    LOGGER.info("SootUp setup done in {}", watch);
+  }
+
+  /**
+   * Creates the view of a Jimple directory, with as much of the Java runtime as the JDK mode
+   * includes. Classes are built on demand.
+   *
+   * @param applicationPath The Jimple directory
+   * @param jdkMode How much of the Java runtime is visible to the analysis
+   * @return The view
+   */
+  public static JimpleConvertingView createView(String applicationPath, JdkMode jdkMode) {
     AnalysisInputLocation jimpleAnalysisInputLocation =
         new JimpleAnalysisInputLocation(
             Path.of(applicationPath), SourceType.Application, Collections.emptyList());
     List<AnalysisInputLocation> inputLocations;
-    if (includeJDK) {
+    if (jdkMode != JdkMode.EXCLUDE) {
       AnalysisInputLocation jdkInputLocation =
           new DefaultRuntimeAnalysisInputLocation(SourceType.Library);
       inputLocations = List.of(jimpleAnalysisInputLocation, jdkInputLocation);
     } else {
       inputLocations = List.of(jimpleAnalysisInputLocation);
+    }
+    if (jdkMode != JdkMode.FULL) {
       suppressSootupWarnings();
     }
 
-    view = new JimpleConvertingView(inputLocations);
-    LOGGER.info("Got {} classes from Jimple input location.", view.getClasses().count());
+    // Classes are built on demand, as the call graph reaches them
+    JimpleConvertingView view =
+        jdkMode == JdkMode.FULL
+            ? new JimpleConvertingView(inputLocations)
+            : new JimpleConvertingView(inputLocations, jdkMode::includes);
+    LOGGER.info(
+        "Got {} classes from Jimple input location.", view.getApplicationClassTypes().size());
+    return view;
+  }
 
-    watch.stop();
-    LOGGER.info("SootUp setup done in {}", watch);
+  /**
+   * Returns the view created by {@link #initializeFramework()}.
+   *
+   * @return The view
+   */
+  public JimpleConvertingView getView() {
+    return view;
   }
 
   @Override
   public CryptoAnalysisScope createFrameworkScope() {
-    Collection<JavaSootMethod> entryPoints = new HashSet<>();
-    view.getClasses()
-        .filter(SootClass::isApplicationClass)
-        .forEach(
-            c -> {
-              for (JavaSootMethod method : c.getMethods()) {
-                if (method.hasBody()) {
-                  entryPoints.add(method);
-                }
-              }
-            });
+    Collection<JavaSootMethod> entryPoints = collectEntryPoints();
 
-    CallGraphAlgorithm algorithm = getCallGraphAlgorithm(view);
-    CallGraph callGraph =
-        algorithm.initialize(entryPoints.stream().map(SootClassMember::getSignature).toList());
+    CallGraph callGraph = buildCallGraph(entryPoints);
+    LOGGER.info(
+        "Loaded {} classes ({} application classes available) for the call graph.",
+        view.getLoadedClassCount(),
+        view.getApplicationClassTypes().size());
     return new CryptoAnalysisSootUpScope(view, callGraph, entryPoints, dataFlowScope);
   }
 
+  private CallGraph buildCallGraph(Collection<JavaSootMethod> entryPoints) {
+    if (callGraphCacheDirectory == null) {
+      return computeCallGraph(entryPoints);
+    }
+
+    CallGraphCache cache = new CallGraphCache(callGraphCacheDirectory);
+    String settingsKey = callGraphSettingsKey();
+    Map<String, String> classHashes;
+    try {
+      classHashes = CallGraphCache.hashClasses(Path.of(applicationPath));
+    } catch (IOException e) {
+      LOGGER.warn("Failed to hash the Jimple input, not caching the call graph", e);
+      return computeCallGraph(entryPoints);
+    }
+
+    Optional<CallGraph> cached = cache.load(settingsKey, classHashes, view);
+    if (cached.isPresent()) {
+      LOGGER.info("Reusing cached call graph from {}.", callGraphCacheDirectory);
+      return cached.get();
+    }
+
+    CallGraph callGraph = computeCallGraph(entryPoints);
+    try {
+      if (!cache.store(settingsKey, classHashes, callGraph, view)) {
+        LOGGER.info("Not caching the call graph, as not all of its calls could be located.");
+      }
+    } catch (IOException e) {
+      LOGGER.warn("Failed to cache the call graph in {}", callGraphCacheDirectory, e);
+    }
+    return callGraph;
+  }
+
+  private CallGraph computeCallGraph(Collection<JavaSootMethod> entryPoints) {
+    CallGraphAlgorithm algorithm = getCallGraphAlgorithm(view);
+    return algorithm.initialize(
+        entryPoints.stream().map(SootClassMember::getSignature).toList());
+  }
+
+  /** Describes everything besides the Jimple input that the call graph depends on. */
+  private String callGraphSettingsKey() {
+    StringBuilder key =
+        new StringBuilder()
+            .append(callGraphAlgorithm)
+            .append('|')
+            .append(entryPointStrategy)
+            .append('|')
+            .append(jdkMode)
+            .append('|')
+            .append(Runtime.version().feature())
+            .append('|')
+            .append(codeVersion(LocationReplacerInterceptor.class))
+            .append('|')
+            .append(codeVersion(BoomerangPreInterceptor.class));
+    if (entryPointStrategy == EntryPointStrategy.RULE_REACHABLE) {
+      key.append('|').append(String.join(",", new TreeSet<>(ruleClassNames)));
+    }
+    return key.toString();
+  }
+
+  /**
+   * Identifies the build of the code that shapes the method bodies, so that a call graph cached by
+   * another version of the interceptors, whose statement indices may differ, is not reused.
+   *
+   * @param type A class of the code
+   * @return The implementation version of its package if known, otherwise the modification time of
+   *     its class file
+   */
+  static String codeVersion(Class<?> type) {
+    String version = type.getPackage().getImplementationVersion();
+    if (version != null) {
+      return version;
+    }
+    URL classFile = type.getResource(type.getSimpleName() + ".class");
+    if (classFile == null) {
+      return "unknown";
+    }
+    try {
+      // For a class packaged in a JAR, this is the time of the JAR entry
+      return String.valueOf(classFile.openConnection().getLastModified());
+    } catch (IOException e) {
+      return "unknown";
+    }
+  }
+
+  private Collection<JavaSootMethod> collectEntryPoints() {
+    if (entryPointStrategy == EntryPointStrategy.RULE_REACHABLE) {
+      Set<JavaSootMethod> entryPoints =
+          RuleReachableEntryPoints.collect(view, view.getApplicationClassTypes(), ruleClassNames);
+      LOGGER.info("Using {} rule-reachable methods as entry points.", entryPoints.size());
+      return entryPoints;
+    }
+
+    // Every application class is an entry point class, so build them all in parallel up front
+    view.warmUp();
+    Collection<JavaSootMethod> entryPoints = new HashSet<>();
+    for (ClassType type : view.getApplicationClassTypes()) {
+      view.getClass(type)
+          .ifPresent(
+              c -> {
+                for (JavaSootMethod method : c.getMethods()) {
+                  if (method.hasBody()) {
+                    entryPoints.add(method);
+                  }
+                }
+              });
+    }
+    return entryPoints;
+  }
+
   private CallGraphAlgorithm getCallGraphAlgorithm(View view) {
     switch (callGraphAlgorithm) {
       case CHA -> {
@@ -107,11 +290,11 @@ public class JimpleFrameworkSetup extends FrameworkSetup {
       List.of(
           // Suppress noisy "Could not find ... to resolve the concrete method" warnings from
           // SootUp.
-          // These occur because we don't include JDK classes in the analysis scope, which is
+          // These occur because we don't include (all) JDK classes in the analysis scope, which is
           // intentional.
           "sootup.callgraph.AbstractCallGraphAlgorithm", "sootup.core.typehierarchy.TypeHierarchy");
 
-  private void suppressSootupWarnings() {
+  private static void suppressSootupWarnings() {
     for (var loggerName : SUPPRESSED_LOGGERS) {
       try {
         var logger = (ch.qos.logback.classic.Logger) LoggerFactory.getLogger(loggerName);
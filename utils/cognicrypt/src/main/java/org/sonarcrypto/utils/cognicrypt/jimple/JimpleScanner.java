@@ -9,10 +9,18 @@ import crypto.reporting.ReporterFactory;
 import crypto.visualization.Visualizer;
 import crysl.rule.CrySLRule;
 import de.fraunhofer.iem.cryptoanalysis.scope.CryptoAnalysisScope;
-import de.fraunhofer.iem.framework.FrameworkSetup;
 import de.fraunhofer.iem.scanner.ScannerSettings;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -21,23 +29,127 @@ public class JimpleScanner extends CryptoScanner {
   private static final Logger LOGGER = LoggerFactory.getLogger(JimpleScanner.class);
 
   private final ScannerSettings settings;
+  private EntryPointStrategy entryPointStrategy = EntryPointStrategy.ALL_METHODS;
+  private JdkMode jdkMode = JdkMode.EXCLUDE;
+  private @Nullable Path callGraphCacheDirectory;
+  private @Nullable JimpleConvertingView view;
+  private @Nullable ReferencedTypes referencedTypes;
+  private final List<String> additionalRulesetPaths = new ArrayList<>();
 
   public JimpleScanner(String applicationPath, String rulesetDirectory) {
+    this(applicationPath);
+    settings.setRulesetPath(rulesetDirectory);
+  }
+
+  /**
+   * Creates a scanner without ruleset, e.g. to select the rulesets by the {@link
+   * #getReferencedTypes() referenced types} first. Add them with {@link #addRuleset} before
+   * scanning.
+   *
+   * @param applicationPath The Jimple directory
+   */
+  public JimpleScanner(String applicationPath) {
     settings = new ScannerSettings();
 
     settings.setApplicationPath(applicationPath);
-    settings.setRulesetPath(rulesetDirectory);
     settings.setCallGraph(ScannerSettings.CallGraphAlgorithm.RTA);
   }
 
+  /**
+   * Sets the additional class path, e.g. the ruleset dependency JARs, that is handed to
+   * CryptoAnalysis together with the rules. It is not added as an input location of the view: the
+   * call graph and the data-flow analysis only traverse the Jimple classes (and the JDK, if
+   * included), so library classes on this path are never parsed or traversed.
+   *
+   * @param addClassPath The class path
+   */
   public void setAddClassPath(String addClassPath) {
     settings.setAddClassPath(addClassPath);
   }
 
+  /**
+   * Adds a ruleset whose rules are merged into the rules of the main ruleset and the rulesets added
+   * before. Rules for a class that already has a rule are ignored, so the first ruleset wins.
+   *
+   * @param rulesetPath The path of the ruleset ZIP file or directory
+   */
+  public void addRuleset(String rulesetPath) {
+    additionalRulesetPaths.add(rulesetPath);
+  }
+
+  public void setEntryPointStrategy(EntryPointStrategy entryPointStrategy) {
+    this.entryPointStrategy = entryPointStrategy;
+  }
+
+  /**
+   * Applies the call graph algorithm, JDK mode and entry point strategy of the given strategy.
+   *
+   * @param strategy The analysis strategy
+   */
+  public void setAnalysisStrategy(AnalysisStrategy strategy) {
+    settings.setCallGraph(strategy.getCallGraphAlgorithm());
+    setJdkMode(strategy.getJdkMode());
+    this.entryPointStrategy = strategy.getEntryPointStrategy();
+  }
+
+  /**
+   * Sets how much of the Java runtime is visible to the analysis. Set it before {@link
+   * #getReferencedTypes()}, since a view created for another JDK mode cannot be reused.
+   *
+   * @param jdkMode The JDK mode
+   */
+  public void setJdkMode(JdkMode jdkMode) {
+    if (jdkMode != this.jdkMode) {
+      view = null;
+    }
+    this.jdkMode = jdkMode;
+  }
+
+  /**
+   * Sets a directory in which the call graph is cached between scans.
+   *
+   * @param callGraphCacheDirectory The cache directory, or null to disable caching
+   */
+  public void setCallGraphCacheDirectory(@Nullable Path callGraphCacheDirectory) {
+    this.callGraphCacheDirectory = callGraphCacheDirectory;
+  }
+
+  /**
+   * Returns the name of the source file a class was converted from, as recorded in its line
+   * mappings. Only available after {@link #scan()}.
+   *
+   * @param className The fully qualified name of the class
+   * @return The source file name, or empty if unknown
+   */
+  public Optional<String> getSourceFileName(String className) {
+    if (view == null) {
+      return Optional.empty();
+    }
+    return view.getSourceFileName(view.getIdentifierFactory().getClassType(className));
+  }
+
+  /**
+   * Returns the types the application refers to. They are collected from the view of the
+   * application, which is created for this and reused by {@link #scan()}.
+   *
+   * @return The referenced types
+   */
+  public ReferencedTypes getReferencedTypes() {
+    if (referencedTypes == null) {
+      referencedTypes = ReferencedTypes.of(getOrCreateView());
+    }
+    return referencedTypes;
+  }
+
+  private JimpleConvertingView getOrCreateView() {
+    if (view == null) {
+      view = JimpleFrameworkSetup.createView(settings.getApplicationPath(), jdkMode);
+    }
+    return view;
+  }
+
   public void scan() {
-    LOGGER.info("Reading rules from {}", settings.getRulesetPath());
-    Collection<CrySLRule> rules = readRules(settings.getRulesetPath(), settings.getAddClassPath());
-    LOGGER.info("Found {} rules in {}", rules.size(), settings.getRulesetPath());
+    Collection<CrySLRule> rules = retainReferencedRules(readAllRules());
 
     // Initialize the reporters before the analysis to catch errors early
     Collection<Reporter> reporters =
@@ -50,7 +162,7 @@ public class JimpleScanner extends CryptoScanner {
     // Set up the framework
     DataFlowScope dataFlowScope =
         new CryptoAnalysisDataFlowScope(rules, settings.getIgnoredSections());
-    CryptoAnalysisScope frameworkScope = initializeFramework(dataFlowScope);
+    CryptoAnalysisScope frameworkScope = initializeFramework(dataFlowScope, rules);
     super.scan(frameworkScope, rules, settings.getAddClassPath());
 
     // Report the errors
@@ -70,11 +182,58 @@ public class JimpleScanner extends CryptoScanner {
     }
   }
 
-  private CryptoAnalysisScope initializeFramework(DataFlowScope dataFlowScope) {
-    FrameworkSetup frameworkSetup =
+  Collection<CrySLRule> readAllRules() {
+    final var rulesByClassName = new LinkedHashMap<String, CrySLRule>();
+    final var rulesetPaths = new ArrayList<String>();
+    if (settings.getRulesetPath() != null) {
+      rulesetPaths.add(settings.getRulesetPath());
+    }
+    rulesetPaths.addAll(additionalRulesetPaths);
+
+    for (String rulesetPath : rulesetPaths) {
+      LOGGER.info("Reading rules from {}", rulesetPath);
+      Collection<CrySLRule> rules = readRules(rulesetPath, settings.getAddClassPath());
+      LOGGER.info("Found {} rules in {}", rules.size(), rulesetPath);
+      for (CrySLRule rule : rules) {
+        rulesByClassName.putIfAbsent(rule.getClassName(), rule);
+      }
+    }
+
+    return List.copyOf(rulesByClassName.values());
+  }
+
+  private Collection<CrySLRule> retainReferencedRules(Collection<CrySLRule> rules) {
+    Path applicationPath = Path.of(settings.getApplicationPath());
+    if (!Files.isDirectory(applicationPath)) {
+      return rules;
+    }
+
+    List<CrySLRule> retainedRules = getReferencedTypes().retainReferenced(rules);
+    LOGGER.info(
+        "Retained {} of {} rules for the types referenced by the application and their predicates",
+        retainedRules.size(),
+        rules.size());
+    return retainedRules;
+  }
+
+  private CryptoAnalysisScope initializeFramework(
+      DataFlowScope dataFlowScope, Collection<CrySLRule> rules) {
+    Set<String> ruleClassNames =
+        rules.stream().map(CrySLRule::getClassName).collect(Collectors.toSet());
+    JimpleFrameworkSetup frameworkSetup =
         new JimpleFrameworkSetup(
-            settings.getApplicationPath(), settings.getCallGraph(), dataFlowScope);
+            settings.getApplicationPath(),
+            settings.getCallGraph(),
+            dataFlowScope,
+            jdkMode,
+            entryPointStrategy,
+            ruleClassNames);
+    frameworkSetup.setCallGraphCacheDirectory(callGraphCacheDirectory);
+    if (view != null) {
+      frameworkSetup.setView(view);
+    }
     frameworkSetup.initializeFramework();
+    view = frameworkSetup.getView();
     super.getAnalysisReporter().beforeCallGraphConstruction();
     var frameworkScope = frameworkSetup.createFrameworkScope();
     super.getAnalysisReporter()
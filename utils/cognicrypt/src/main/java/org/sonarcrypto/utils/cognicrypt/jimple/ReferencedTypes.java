@@ -0,0 +1,216 @@
+package org.sonarcrypto.utils.cognicrypt.jimple;
+
+import crysl.rule.CrySLConstraint;
+import crysl.rule.CrySLPredicate;
+import crysl.rule.CrySLRule;
+import crysl.rule.ISLConstraint;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import sootup.core.jimple.common.stmt.InvokableStmt;
+import sootup.core.jimple.common.stmt.Stmt;
+import sootup.core.model.Body;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.types.ArrayType;
+import sootup.core.types.ClassType;
+import sootup.core.types.Type;
+import sootup.java.core.JavaSootClass;
+import sootup.java.core.JavaSootMethod;
+
+/**
+ * The fully qualified names of the types an application refers to, collected from the classes of
+ * its view.
+ *
+ * <p>Jimple spells out every type in full: declared locals and fields, method signatures of
+ * invocations and field references, casts and allocations. Hence, a class that occurs in none of
+ * them is neither instantiated nor called by the application, and a CrySL rule for it can neither
+ * find seeds nor errors, unless another rule depends on it through a predicate.
+ *
+ * <p>Names are compared with nested classes separated by {@code .}, so that {@code Outer$Inner}
+ * matches {@code Outer.Inner}.
+ */
+public final class ReferencedTypes {
+  private final Set<String> typeNames;
+
+  private ReferencedTypes(Set<String> typeNames) {
+    this.typeNames = typeNames;
+  }
+
+  /**
+   * Collects the types referenced by the application classes of a view. The classes are built one
+   * by one and their method bodies are read without intercepting them, so that only the methods
+   * reached by the analysis are intercepted later on.
+   *
+   * @param view The view of the application
+   * @return The referenced types
+   */
+  public static ReferencedTypes of(JimpleConvertingView view) {
+    Set<String> typeNames = new HashSet<>();
+    for (ClassType type : view.getApplicationClassTypes()) {
+      view.getClass(type).ifPresent(sootClass -> collect(view, sootClass, typeNames));
+    }
+    return new ReferencedTypes(typeNames);
+  }
+
+  private static void collect(
+      JimpleConvertingView view, JavaSootClass sootClass, Set<String> typeNames) {
+    add(sootClass.getType(), typeNames);
+    sootClass.getSuperclass().ifPresent(type -> add(type, typeNames));
+    sootClass.getInterfaces().forEach(type -> add(type, typeNames));
+    sootClass.getFields().forEach(field -> add(field.getType(), typeNames));
+
+    for (JavaSootMethod method : sootClass.getMethods()) {
+      add(method.getSignature(), typeNames);
+      method.getExceptionSignatures().forEach(type -> add(type, typeNames));
+      if (!method.hasBody()) {
+        continue;
+      }
+
+      Body body = view.getUninterceptedBody(method);
+      body.getLocals().forEach(local -> add(local.getType(), typeNames));
+      for (Stmt stmt : body.getStmts()) {
+        if (stmt instanceof InvokableStmt invokableStmt) {
+          invokableStmt
+              .getInvokeExpr()
+              .ifPresent(expr -> add(expr.getMethodSignature(), typeNames));
+        }
+        if (stmt.containsFieldRef()) {
+          add(stmt.getFieldRef().getFieldSignature().getDeclClassType(), typeNames);
+        }
+      }
+    }
+  }
+
+  private static void add(MethodSignature signature, Set<String> typeNames) {
+    add(signature.getDeclClassType(), typeNames);
+    add(signature.getType(), typeNames);
+    signature.getParameterTypes().forEach(type -> add(type, typeNames));
+  }
+
+  private static void add(Type type, Set<String> typeNames) {
+    Type elementType = type instanceof ArrayType arrayType ? arrayType.getBaseType() : type;
+    if (elementType instanceof ClassType classType) {
+      typeNames.add(normalize(classType.getFullyQualifiedName()));
+    }
+  }
+
+  /**
+   * Checks whether a type is referenced.
+   *
+   * @param className The fully qualified name of the type
+   * @return {@code true} if the type is referenced
+   */
+  public boolean contains(String className) {
+    return typeNames.contains(normalize(className));
+  }
+
+  /**
+   * Checks whether a type of a package or its subpackages is referenced.
+   *
+   * @param packagePrefix The package name followed by a {@code .}, e.g. {@code org.bouncycastle.}
+   * @return {@code true} if such a type is referenced
+   */
+  public boolean containsPackage(String packagePrefix) {
+    return typeNames.stream().anyMatch(typeName -> typeName.startsWith(packagePrefix));
+  }
+
+  /**
+   * Filters rules down to the rules for referenced classes and the rules these depend on. A rule
+   * that ensures a predicate required by a retained rule is retained as well, transitively: the
+   * rule for {@code Cipher}, for example, requires the {@code generatedKey} predicate ensured by
+   * the rules for {@code KeyGenerator} and {@code SecretKeySpec}, and {@code KeyGenerator} requires
+   * the {@code randomized} predicate ensured by the rule for {@code SecureRandom}. Without them,
+   * CryptoAnalysis would report the required predicates as missing.
+   *
+   * @param rules The rules
+   * @return The retained rules, in the given order
+   */
+  public List<CrySLRule> retainReferenced(Collection<CrySLRule> rules) {
+    return retainWithDependencies(
+        rules,
+        rule -> contains(rule.getClassName()),
+        ReferencedTypes::requiredPredicateNames,
+        rule -> predicateNames(rule.getPredicates()));
+  }
+
+  /**
+   * Retains the referenced rules and, transitively, the rules ensuring a predicate required by a
+   * retained rule.
+   *
+   * @param rules The rules
+   * @param referenced Whether a rule is for a referenced class
+   * @param requiredPredicates The names of the predicates a rule requires
+   * @param ensuredPredicates The names of the predicates a rule ensures
+   * @return The retained rules, in the given order
+   */
+  static <R> List<R> retainWithDependencies(
+      Collection<R> rules,
+      Predicate<R> referenced,
+      Function<R, Set<String>> requiredPredicates,
+      Function<R, Set<String>> ensuredPredicates) {
+    Map<String, List<R>> rulesByEnsuredPredicate = new HashMap<>();
+    Set<R> retained = Collections.newSetFromMap(new IdentityHashMap<>());
+    Deque<R> worklist = new ArrayDeque<>();
+    for (R rule : rules) {
+      for (String predicate : ensuredPredicates.apply(rule)) {
+        rulesByEnsuredPredicate.computeIfAbsent(predicate, k -> new ArrayList<>()).add(rule);
+      }
+      if (referenced.test(rule) && retained.add(rule)) {
+        worklist.add(rule);
+      }
+    }
+
+    while (!worklist.isEmpty()) {
+      R rule = worklist.poll();
+      for (String predicate : requiredPredicates.apply(rule)) {
+        for (R ensuringRule : rulesByEnsuredPredicate.getOrDefault(predicate, List.of())) {
+          if (retained.add(ensuringRule)) {
+            worklist.add(ensuringRule);
+          }
+        }
+      }
+    }
+
+    return rules.stream().filter(retained::contains).toList();
+  }
+
+  /** Collects the predicate names of the constraints of a rule, including alternatives. */
+  private static Set<String> requiredPredicateNames(CrySLRule rule) {
+    Set<String> names = new HashSet<>();
+    Deque<ISLConstraint> pending = new ArrayDeque<>(rule.getConstraints());
+    pending.addAll(rule.getRequiredPredicates());
+    while (!pending.isEmpty()) {
+      ISLConstraint constraint = pending.poll();
+      if (constraint instanceof CrySLPredicate predicate) {
+        names.add(predicate.getPredName());
+      } else if (constraint instanceof CrySLConstraint combined) {
+        // Alternatives of required predicates, e.g. generatedKey[key] || generatedPrivkey[key]
+        pending.add(combined.getLeft());
+        pending.add(combined.getRight());
+      }
+    }
+    return names;
+  }
+
+  private static Set<String> predicateNames(Collection<? extends CrySLPredicate> predicates) {
+    Set<String> names = new HashSet<>();
+    for (CrySLPredicate predicate : predicates) {
+      names.add(predicate.getPredName());
+    }
+    return names;
+  }
+
+  private static String normalize(String className) {
+    return className.replace('$', '.');
+  }
+}
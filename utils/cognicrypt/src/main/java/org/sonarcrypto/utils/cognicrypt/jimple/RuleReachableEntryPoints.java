@@ -0,0 +1,193 @@
+package org.sonarcrypto.utils.cognicrypt.jimple;
+
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import java.util.*;
+import sootup.core.IdentifierFactory;
+import sootup.core.jimple.common.stmt.InvokableStmt;
+import sootup.core.jimple.common.stmt.Stmt;
+import sootup.core.model.Body;
+import sootup.core.model.SootClass;
+import sootup.core.model.SourceType;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.signatures.MethodSubSignature;
+import sootup.core.typehierarchy.TypeHierarchy;
+import sootup.core.types.ClassType;
+import sootup.core.views.View;
+import sootup.java.bytecode.frontend.inputlocation.DefaultRuntimeAnalysisInputLocation;
+import sootup.java.core.JavaSootClass;
+import sootup.java.core.JavaSootMethod;
+import sootup.java.core.views.JavaView;
+
+/**
+ * Finds the application methods from which a call into a rule class may be reachable.
+ *
+ * <p>This is a cheap backwards pass over the invoke statements of the application, not a call
+ * graph: a call is assumed to reach every application method with the same sub-signature, which
+ * over-approximates virtual dispatch. Starting from the methods that invoke a rule class directly,
+ * the callers are added until nothing changes.
+ *
+ * <p>A call into a rule class may also be declared on a subtype of it, e.g. an application's
+ * {@code MessageDigest} subclass, or on a supertype, e.g. {@code Key.getEncoded()} for a key
+ * covered by a rule. Calls declared on any type of the rule classes' hierarchy, except {@code
+ * java.lang.Object}, are therefore treated as calls into a rule class.
+ */
+final class RuleReachableEntryPoints {
+
+  private static final String OBJECT_CLASS_NAME = "java.lang.Object";
+
+  private RuleReachableEntryPoints() {}
+
+  /**
+   * Collects the rule-reachable methods of the given application classes.
+   *
+   * @param view The view providing the classes
+   * @param applicationClassTypes The application classes to consider
+   * @param ruleClassNames The fully qualified names of the classes covered by CrySL rules
+   * @return The methods from which a rule class may be reachable
+   */
+  static Set<JavaSootMethod> collect(
+      JimpleConvertingView view,
+      Collection<ClassType> applicationClassTypes,
+      Set<String> ruleClassNames) {
+    Map<MethodSubSignature, Set<JavaSootMethod>> callersByCallee = new HashMap<>();
+    Deque<JavaSootMethod> worklist = new ArrayDeque<>();
+    Set<JavaSootMethod> reachable = new HashSet<>();
+    Set<String> ruleTypeNames = ruleTypeHierarchy(view, applicationClassTypes, ruleClassNames);
+
+    for (ClassType type : applicationClassTypes) {
+      Optional<JavaSootClass> sootClass = view.getClass(type);
+      if (sootClass.isEmpty()) {
+        continue;
+      }
+      for (JavaSootMethod method : sootClass.get().getMethods()) {
+        if (!method.hasBody()) {
+          continue;
+        }
+        boolean callsRuleClass = false;
+        for (MethodSignature callee : invokedMethods(view.getUninterceptedBody(method))) {
+          if (ruleTypeNames.contains(callee.getDeclClassType().getFullyQualifiedName())) {
+            callsRuleClass = true;
+          } else {
+            callersByCallee
+                .computeIfAbsent(callee.getSubSignature(), k -> new HashSet<>())
+                .add(method);
+          }
+        }
+        if (callsRuleClass && reachable.add(method)) {
+          worklist.add(method);
+        }
+      }
+    }
+
+    while (!worklist.isEmpty()) {
+      JavaSootMethod method = worklist.poll();
+      Set<JavaSootMethod> callers =
+          callersByCallee.getOrDefault(method.getSignature().getSubSignature(), Set.of());
+      for (JavaSootMethod caller : callers) {
+        if (reachable.add(caller)) {
+          worklist.add(caller);
+        }
+      }
+    }
+
+    return reachable;
+  }
+
+  /**
+   * Extends the rule classes by their subtypes and supertypes.
+   *
+   * <p>The view's type hierarchy lacks the JDK classes with {@link JdkMode#EXCLUDE}, and most rule
+   * classes are JDK classes. Hence, the supertypes are read from the class headers, from the view
+   * or, for classes it does not provide, from the Java runtime. The subtypes are the application
+   * classes with a rule class among their supertypes, and the library classes the view's type
+   * hierarchy knows of.
+   *
+   * @param view The view providing the classes
+   * @param applicationClassTypes The application classes to consider as subtypes
+   * @param ruleClassNames The fully qualified names of the classes covered by CrySL rules
+   * @return The fully qualified names of the rule classes and the types related to them
+   */
+  static Set<String> ruleTypeHierarchy(
+      JimpleConvertingView view,
+      Collection<ClassType> applicationClassTypes,
+      Set<String> ruleClassNames) {
+    IdentifierFactory factory = view.getIdentifierFactory();
+    Supertypes supertypes = new Supertypes(view);
+    Set<String> typeNames = new HashSet<>(ruleClassNames);
+    for (String ruleClassName : ruleClassNames) {
+      typeNames.addAll(supertypes.of(factory.getClassType(ruleClassName)));
+    }
+    for (ClassType type : applicationClassTypes) {
+      if (supertypes.of(type).stream().anyMatch(ruleClassNames::contains)) {
+        typeNames.add(type.getFullyQualifiedName());
+      }
+    }
+
+    TypeHierarchy hierarchy = view.getTypeHierarchy();
+    for (String ruleClassName : ruleClassNames) {
+      ClassType ruleClass = factory.getClassType(ruleClassName);
+      if (hierarchy.contains(ruleClass)) {
+        hierarchy
+            .subtypesOf(ruleClass)
+            .forEach(type -> typeNames.add(type.getFullyQualifiedName()));
+      }
+    }
+    // Every class is a subtype of Object; calls to its methods say nothing about the rule classes
+    if (!ruleClassNames.contains(OBJECT_CLASS_NAME)) {
+      typeNames.remove(OBJECT_CLASS_NAME);
+    }
+    return typeNames;
+  }
+
+  /**
+   * The transitive supertypes of classes, read from the class headers. The Java runtime is only
+   * read from for classes the view does not provide, and only class by class.
+   */
+  private static final class Supertypes {
+    private final JimpleConvertingView view;
+    private final Supplier<View> runtimeView =
+        Suppliers.memoize(
+            () -> new JavaView(new DefaultRuntimeAnalysisInputLocation(SourceType.Library)));
+    private final Map<ClassType, Set<String>> supertypeNames = new HashMap<>();
+
+    private Supertypes(JimpleConvertingView view) {
+      this.view = view;
+    }
+
+    /** Returns the fully qualified names of the supertypes of a class, or none if it is unknown. */
+    Set<String> of(ClassType type) {
+      Set<String> names = supertypeNames.get(type);
+      if (names != null) {
+        return names;
+      }
+      names = new HashSet<>();
+      supertypeNames.put(type, names);
+      Optional<? extends SootClass> sootClass = lookUp(type);
+      if (sootClass.isPresent()) {
+        List<ClassType> directSupertypes = new ArrayList<>(sootClass.get().getInterfaces());
+        sootClass.get().getSuperclass().ifPresent(directSupertypes::add);
+        for (ClassType supertype : directSupertypes) {
+          names.add(supertype.getFullyQualifiedName());
+          names.addAll(of(supertype));
+        }
+      }
+      return names;
+    }
+
+    private Optional<? extends SootClass> lookUp(ClassType type) {
+      Optional<JavaSootClass> sootClass = view.getClass(type);
+      return sootClass.isPresent() ? sootClass : runtimeView.get().getClass(type);
+    }
+  }
+
+  private static List<MethodSignature> invokedMethods(Body body) {
+    List<MethodSignature> invoked = new ArrayList<>();
+    for (Stmt stmt : body.getStmts()) {
+      if (stmt instanceof InvokableStmt invokableStmt) {
+        invokableStmt.getInvokeExpr().ifPresent(expr -> invoked.add(expr.getMethodSignature()));
+      }
+    }
+    return invoked;
+  }
+}
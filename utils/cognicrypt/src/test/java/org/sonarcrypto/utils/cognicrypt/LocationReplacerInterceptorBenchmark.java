@@ -0,0 +1,132 @@
+package org.sonarcrypto.utils.cognicrypt;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.sonarcrypto.utils.jimple.mapper.ElementType;
+import org.sonarcrypto.utils.jimple.mapper.LineMapping;
+import org.sonarcrypto.utils.jimple.mapper.SourcePosition;
+import sootup.core.graph.MutableBlockStmtGraph;
+import sootup.core.jimple.Jimple;
+import sootup.core.jimple.basic.Local;
+import sootup.core.jimple.basic.SimpleStmtPositionInfo;
+import sootup.core.jimple.common.constant.IntConstant;
+import sootup.core.jimple.common.stmt.BranchingStmt;
+import sootup.core.jimple.common.stmt.JIfStmt;
+import sootup.core.jimple.common.stmt.Stmt;
+import sootup.core.model.Body;
+import sootup.core.types.PrimitiveType;
+
+/**
+ * Measures {@link LocationReplacerInterceptor} on methods with thousands of statements, all of
+ * which have a mapped position.
+ *
+ * <p>Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.sonarcrypto.utils.cognicrypt.LocationReplacerInterceptorBenchmark} or from
+ * the IDE.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class LocationReplacerInterceptorBenchmark {
+
+  @Param({"1000", "5000", "20000"})
+  private int statements;
+
+  private LocationReplacerInterceptor interceptor;
+  private Body.BodyBuilder builder;
+
+  @Setup(Level.Trial)
+  public void createInterceptor() {
+    interceptor = new LocationReplacerInterceptor(mappingsFor(statements));
+  }
+
+  @Setup(Level.Invocation)
+  public void createBuilder() {
+    builder = Body.builder();
+    builder.setStmtGraph(createGraph(statements));
+  }
+
+  @Benchmark
+  public Body.BodyBuilder interceptBody() {
+    interceptor.interceptBody(builder, null);
+    return builder;
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(
+            new OptionsBuilder()
+                .include(LocationReplacerInterceptorBenchmark.class.getSimpleName())
+                .build())
+        .run();
+  }
+
+  /**
+   * Creates a graph of roughly the given number of statements, in blocks of an assignment and a
+   * conditional branch to the next block, ending in a return. Statement {@code i} is on line
+   * {@code i + 1}.
+   */
+  private static MutableBlockStmtGraph createGraph(int statements) {
+    Local local = new Local("i", PrimitiveType.getInt());
+    int blocks = Math.max(1, (statements - 1) / 2);
+
+    List<Stmt> stmts = new ArrayList<>();
+    for (int block = 0; block < blocks; block++) {
+      stmts.add(
+          Jimple.newAssignStmt(
+              local, IntConstant.getInstance(block), new SimpleStmtPositionInfo(stmts.size() + 1)));
+      stmts.add(
+          Jimple.newIfStmt(
+              Jimple.newEqExpr(local, IntConstant.getInstance(0)),
+              new SimpleStmtPositionInfo(stmts.size() + 1)));
+    }
+    stmts.add(Jimple.newReturnVoidStmt(new SimpleStmtPositionInfo(stmts.size() + 1)));
+
+    // Each branch skips the assignment of the following block
+    Map<BranchingStmt, List<Stmt>> branchingMap = new HashMap<>();
+    for (int i = 0; i < stmts.size(); i++) {
+      if (stmts.get(i) instanceof JIfStmt ifStmt) {
+        branchingMap.put(ifStmt, List.of(stmts.get(Math.min(i + 2, stmts.size() - 1))));
+      }
+    }
+
+    MutableBlockStmtGraph graph = new MutableBlockStmtGraph();
+    graph.initializeWith(stmts, branchingMap, List.of());
+    return graph;
+  }
+
+  /** Maps line {@code i} to the source line {@code 1000 + i} for all statements of the graph. */
+  private static Map<Integer, LineMapping> mappingsFor(int statements) {
+    Map<Integer, LineMapping> mappings = new HashMap<>();
+    for (int line = 1; line <= statements; line++) {
+      mappings.put(
+          line,
+          new LineMapping(
+              line,
+              ElementType.STATEMENT,
+              "benchmark",
+              new SourcePosition(1000 + line, 1000 + line, 1, 10)));
+    }
+    return mappings;
+  }
+}
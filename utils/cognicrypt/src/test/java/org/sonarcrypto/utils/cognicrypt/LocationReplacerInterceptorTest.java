@@ -6,17 +6,26 @@ import java.io.File;
 import java.net.URL;
 import java.nio.file.Path;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import org.junit.jupiter.api.Test;
 import org.sonarcrypto.utils.cognicrypt.jimple.JimpleConvertingView;
 import org.sonarcrypto.utils.jimple.mapper.ElementType;
 import org.sonarcrypto.utils.jimple.mapper.LineMapping;
 import org.sonarcrypto.utils.jimple.mapper.SourcePosition;
+import sootup.core.graph.MutableBlockStmtGraph;
+import sootup.core.jimple.Jimple;
+import sootup.core.jimple.basic.Local;
+import sootup.core.jimple.basic.SimpleStmtPositionInfo;
+import sootup.core.jimple.common.constant.IntConstant;
+import sootup.core.jimple.common.stmt.JIfStmt;
 import sootup.core.jimple.common.stmt.Stmt;
 import sootup.core.model.Body;
 import sootup.core.model.Position;
 import sootup.core.model.SourceType;
 import sootup.core.types.ClassType;
+import sootup.core.types.PrimitiveType;
 import sootup.java.core.JavaSootClass;
 import sootup.java.core.JavaSootMethod;
 import sootup.jimple.frontend.JimpleAnalysisInputLocation;
@@ -65,8 +74,62 @@ class LocationReplacerInterceptorTest {
     assertThat(lineAfter).isEqualTo(originalLine);
   }
 
+  @Test
+  void relocatedBuilder_replacesPositionsAndKeepsBodyProperties() {
+    JavaSootMethod method = loadGetValueMethod();
+    Body body = method.getBody();
+    int jimpleLine =
+        body.getStmtGraph().getStartingStmt().getPositionInfo().getStmtPosition().getFirstLine();
+    var targetPos = new SourcePosition(42, 42, 7, 25);
+    var mapping = new LineMapping(jimpleLine, ElementType.STATEMENT, "test", targetPos);
+    var interceptor = new LocationReplacerInterceptor(Map.of(jimpleLine, mapping));
+
+    Body relocated = interceptor.relocatedBuilder(body, method.getModifiers()).build();
+
+    Stmt starting = relocated.getStmtGraph().getStartingStmt();
+    assertThat(starting.getPositionInfo().getStmtPosition().getFirstLine()).isEqualTo(42);
+    assertThat(relocated.getStmts()).hasSameSizeAs(body.getStmts());
+    assertThat(relocated.getLocals()).isEqualTo(body.getLocals());
+    assertThat(relocated.getMethodSignature()).isEqualTo(body.getMethodSignature());
+  }
+
+  @Test
+  void interceptBody_redirectsBranchTargetsToReplacedStatements() {
+    Local local = new Local("i", PrimitiveType.getInt());
+    Stmt assign = Jimple.newAssignStmt(local, IntConstant.getInstance(1), positionAt(1));
+    JIfStmt branch =
+        Jimple.newIfStmt(Jimple.newEqExpr(local, IntConstant.getInstance(0)), positionAt(2));
+    Stmt reassign = Jimple.newAssignStmt(local, IntConstant.getInstance(2), positionAt(3));
+    Stmt ret = Jimple.newReturnVoidStmt(positionAt(4));
+    MutableBlockStmtGraph graph = new MutableBlockStmtGraph();
+    graph.initializeWith(
+        List.of(assign, branch, reassign, ret), Map.of(branch, List.of(ret)), List.of());
+
+    Map<Integer, LineMapping> mappings = new HashMap<>();
+    for (int line = 1; line <= 4; line++) {
+      var targetPos = new SourcePosition(100 + line, 100 + line, 1, 9);
+      mappings.put(line, new LineMapping(line, ElementType.STATEMENT, "test", targetPos));
+    }
+    Body.BodyBuilder builder = Body.builder();
+    builder.setStmtGraph(graph);
+    new LocationReplacerInterceptor(mappings).interceptBody(builder, null);
+
+    List<Stmt> stmts = builder.getStmtGraph().getStmts();
+    assertThat(stmts)
+        .extracting(stmt -> stmt.getPositionInfo().getStmtPosition().getFirstLine())
+        .containsExactly(101, 102, 103, 104);
+    JIfStmt replacedBranch = (JIfStmt) stmts.get(1);
+    assertThat(builder.getStmtGraph().getBranchTargetsOf(replacedBranch))
+        .singleElement()
+        .isSameAs(stmts.get(3));
+  }
+
   // --- helpers ---
 
+  private static SimpleStmtPositionInfo positionAt(int line) {
+    return new SimpleStmtPositionInfo(line);
+  }
+
   private JavaSootMethod loadGetValueMethod() {
     JimpleAnalysisInputLocation loc = getTestJimpleInputLocation();
     JimpleConvertingView view = new JimpleConvertingView(loc);
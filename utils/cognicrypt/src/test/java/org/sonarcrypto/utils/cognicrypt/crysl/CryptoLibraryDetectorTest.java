@@ -0,0 +1,119 @@
+package org.sonarcrypto.utils.cognicrypt.crysl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sonarcrypto.utils.cognicrypt.crysl.CryptoLibraryDetector.CryptoLibrary;
+import org.sonarcrypto.utils.cognicrypt.jimple.JimpleConvertingView;
+import org.sonarcrypto.utils.cognicrypt.jimple.ReferencedTypes;
+import sootup.core.model.SourceType;
+import sootup.jimple.frontend.JimpleAnalysisInputLocation;
+
+public class CryptoLibraryDetectorTest {
+
+  @TempDir Path tempDir;
+
+  @Test
+  void testNothingDetectedForPlainJcaProject() throws Exception {
+    final var libraries =
+        CryptoLibraryDetector.detect(
+            String.join(File.pathSeparator, "/repo/commons-io-2.16.1.jar", "/repo/classes"),
+            referencedTypes("javax.crypto.Cipher cipher;"));
+
+    assertThat(libraries).isEmpty();
+    assertThat(CryptoLibraryDetector.selectRulesets(libraries)).containsExactly(Ruleset.JCA);
+  }
+
+  @Test
+  void testLibrariesDetectedOnClassPath() throws Exception {
+    final var libraries =
+        CryptoLibraryDetector.detect(
+            String.join(
+                File.pathSeparator, "/repo/bcprov-jdk18on-1.78.jar", "/repo/tink-1.13.0.jar"),
+            null);
+
+    assertThat(libraries)
+        .containsExactlyInAnyOrder(
+            CryptoLibrary.BOUNCY_CASTLE,
+            CryptoLibrary.BOUNCY_CASTLE_LIGHTWEIGHT,
+            CryptoLibrary.TINK);
+  }
+
+  @Test
+  void testLightweightBouncyCastleDetectedInReferencedTypes() throws Exception {
+    final var libraries =
+        CryptoLibraryDetector.detect(
+            null, referencedTypes("org.bouncycastle.crypto.engines.AESEngine engine;"));
+
+    assertThat(libraries).containsExactly(CryptoLibrary.BOUNCY_CASTLE_LIGHTWEIGHT);
+    assertThat(CryptoLibraryDetector.selectRulesets(libraries))
+        .containsExactly(Ruleset.JCA, Ruleset.BC);
+  }
+
+  @Test
+  void testBouncyCastleUtilitiesDetectNothing() throws Exception {
+    final var libraries =
+        CryptoLibraryDetector.detect(
+            null, referencedTypes("org.bouncycastle.util.encoders.Hex hex;"));
+
+    assertThat(libraries).isEmpty();
+    assertThat(CryptoLibraryDetector.selectRulesets(libraries)).containsExactly(Ruleset.JCA);
+  }
+
+  @Test
+  void testBouncyCastleProviderDetectedInReferencedTypes() throws Exception {
+    final var libraries =
+        CryptoLibraryDetector.detect(
+            null, referencedTypes("org.bouncycastle.jce.provider.BouncyCastleProvider provider;"));
+
+    assertThat(libraries).containsExactly(CryptoLibrary.BOUNCY_CASTLE);
+    assertThat(CryptoLibraryDetector.selectRulesets(libraries))
+        .containsExactly(Ruleset.JCA_BC_JCA);
+  }
+
+  @Test
+  void testBouncyCastleJcajceDetectedInReferencedTypes() throws Exception {
+    final var libraries =
+        CryptoLibraryDetector.detect(
+            null, referencedTypes("org.bouncycastle.jcajce.spec.AEADParameterSpec spec;"));
+
+    assertThat(libraries).containsExactly(CryptoLibrary.BOUNCY_CASTLE);
+  }
+
+  @Test
+  void testTinkDetectedInReferencedTypes() throws Exception {
+    final var libraries =
+        CryptoLibraryDetector.detect("", referencedTypes("com.google.crypto.tink.Aead aead;"));
+
+    assertThat(libraries).containsExactly(CryptoLibrary.TINK);
+    assertThat(CryptoLibraryDetector.selectRulesets(libraries))
+        .containsExactly(Ruleset.JCA, Ruleset.TINK);
+  }
+
+  @Test
+  void testAllRulesetsSelected() {
+    final Set<CryptoLibrary> libraries = EnumSet.allOf(CryptoLibrary.class);
+
+    assertThat(CryptoLibraryDetector.selectRulesets(libraries))
+        .containsExactly(Ruleset.JCA_BC_JCA, Ruleset.BC, Ruleset.TINK);
+  }
+
+  /** Collects the referenced types of a Jimple class declaring the given field. */
+  private ReferencedTypes referencedTypes(String field) throws IOException {
+    Files.writeString(
+        tempDir.resolve("Main.jimple"),
+        "public class Main extends java.lang.Object { " + field + " }");
+    return ReferencedTypes.of(
+        new JimpleConvertingView(
+            new JimpleAnalysisInputLocation(
+                tempDir, SourceType.Application, Collections.emptyList())));
+  }
+}
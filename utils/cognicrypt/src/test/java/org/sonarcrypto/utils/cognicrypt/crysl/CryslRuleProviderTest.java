@@ -5,6 +5,7 @@ import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.util.zip.ZipFile;
 import org.junit.jupiter.api.Test;
 
@@ -59,6 +60,27 @@ public class CryslRuleProviderTest {
     assertThat(rulesetPaths.dependencyClasspath()).contains("bcprov-jdk18on");
   }
 
+  @Test
+  void testProvidedRulesetIsExtractedOnce() throws Exception {
+    var provider = new CryslRuleProvider();
+
+    var first = provider.provideRuleset(Ruleset.TINK);
+    var second = new CryslRuleProvider().provideRuleset(Ruleset.TINK);
+
+    assertThat(second).isEqualTo(first);
+  }
+
+  @Test
+  void testProvidedRulesetIsExtractedAgainIfDeleted() throws Exception {
+    var provider = new CryslRuleProvider();
+
+    var first = provider.provideRuleset(Ruleset.BC_JCA);
+    Files.delete(first.rulesetZip());
+    var second = provider.provideRuleset(Ruleset.BC_JCA);
+
+    assertThat(second.rulesetZip()).isNotEqualTo(first.rulesetZip()).isRegularFile();
+  }
+
   @Test
   void testRuleNotFound() {
     var provider = new CryslRuleProvider();
@@ -0,0 +1,91 @@
+package org.sonarcrypto.utils.cognicrypt.jimple;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class AnalysisStrategyTest {
+
+  @Test
+  void select_smallInput_isPrecise() {
+    var metrics = new InputMetrics(10, 100);
+
+    assertThat(AnalysisStrategy.select(metrics, Duration.ofMinutes(10)))
+        .isEqualTo(AnalysisStrategy.PRECISE);
+  }
+
+  @Test
+  void select_growingInput_getsCheaper() {
+    var budget = Duration.ofMinutes(10);
+
+    var strategies =
+        LongStream.of(20_000, 50_000, 100_000, 1_000_000)
+            .mapToObj(methods -> AnalysisStrategy.select(new InputMetrics(1000, methods), budget))
+            .toList();
+
+    assertThat(strategies)
+        .containsExactly(
+            AnalysisStrategy.STANDARD,
+            AnalysisStrategy.PRUNED,
+            AnalysisStrategy.FAST,
+            AnalysisStrategy.FAST);
+  }
+
+  @Test
+  void measure_countsJimpleFilesAndMethods(@TempDir Path dir) throws Exception {
+    Files.writeString(
+        dir.resolve("A.jimple"),
+        """
+        public class A extends java.lang.Object
+        {
+            private int value;
+
+            public abstract void run();
+
+            public void <init>()
+            {
+                A r0;
+                r0 := @this: A;
+                specialinvoke r0.<java.lang.Object: void <init>()>();
+                return;
+            }
+
+            public int get(int) throws java.io.IOException
+            {
+                A r0;
+                int i0;
+                r0 := @this: A;
+                i0 := @parameter0: int;
+                lookupswitch(i0)
+                {
+                    case 1: goto label1;
+                    default: goto label1;
+                };
+
+              label1:
+                return i0;
+            }
+        }
+        """);
+    Files.writeString(
+        dir.resolve("B.jimple"),
+        """
+        public class B extends java.lang.Object {
+            public static void main(java.lang.String[]) {
+                return;
+            }
+        }
+        """);
+    Files.writeString(dir.resolve("B.jimple.map.json"), "{\"mappings\": []}");
+
+    var metrics = InputMetrics.measure(dir);
+
+    assertThat(metrics.classCount()).isEqualTo(2);
+    assertThat(metrics.methodCount()).isEqualTo(3);
+  }
+}
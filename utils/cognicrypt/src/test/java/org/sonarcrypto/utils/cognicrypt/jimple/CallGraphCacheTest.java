@@ -0,0 +1,99 @@
+package org.sonarcrypto.utils.cognicrypt.jimple;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import sootup.callgraph.CallGraph;
+import sootup.callgraph.ClassHierarchyAnalysisAlgorithm;
+import sootup.core.model.SourceType;
+import sootup.core.signatures.MethodSignature;
+import sootup.jimple.frontend.JimpleAnalysisInputLocation;
+
+class CallGraphCacheTest {
+
+  @TempDir Path cacheDirectory;
+
+  @Test
+  void storeAndLoad_restoresCallGraph() throws Exception {
+    Path jimpleDirectory = jimpleDirectory();
+    Map<String, String> hashes = CallGraphCache.hashClasses(jimpleDirectory);
+    JimpleConvertingView view = createView(jimpleDirectory);
+    CallGraph callGraph =
+        new ClassHierarchyAnalysisAlgorithm(view).initialize(List.of(mainSignature(view)));
+
+    assertThat(new CallGraphCache(cacheDirectory).store("CHA", hashes, callGraph, view)).isTrue();
+    JimpleConvertingView nextView = createView(jimpleDirectory);
+    CallGraph restored =
+        new CallGraphCache(cacheDirectory).load("CHA", hashes, nextView).orElseThrow();
+
+    assertThat(restored.callCount()).isEqualTo(callGraph.callCount());
+    assertThat(restored.getMethodSignatures()).isEqualTo(callGraph.getMethodSignatures());
+  }
+
+  @Test
+  void load_withChangedInputOrSettings_isEmpty() throws Exception {
+    Path jimpleDirectory = jimpleDirectory();
+    Map<String, String> hashes = CallGraphCache.hashClasses(jimpleDirectory);
+    JimpleConvertingView view = createView(jimpleDirectory);
+    CallGraph callGraph =
+        new ClassHierarchyAnalysisAlgorithm(view).initialize(List.of(mainSignature(view)));
+    CallGraphCache cache = new CallGraphCache(cacheDirectory);
+    cache.store("CHA", hashes, callGraph, view);
+
+    assertThat(cache.load("RTA", hashes, view)).isEmpty();
+    assertThat(cache.load("CHA", Map.of("JimpleTest.jimple", "changed"), view)).isEmpty();
+  }
+
+  @Test
+  void store_withStatementsMissingFromView_storesNothing() throws Exception {
+    Path jimpleDirectory = jimpleDirectory();
+    Map<String, String> hashes = CallGraphCache.hashClasses(jimpleDirectory);
+    JimpleConvertingView view = createView(jimpleDirectory);
+    CallGraph callGraph =
+        new ClassHierarchyAnalysisAlgorithm(view).initialize(List.of(mainSignature(view)));
+    assertThat(callGraph.callCount()).isPositive();
+    CallGraphCache cache = new CallGraphCache(cacheDirectory);
+
+    // The bodies of another view have other statements than the call graph refers to
+    JimpleConvertingView otherView = createView(jimpleDirectory);
+    boolean stored = cache.store("CHA", hashes, callGraph, otherView);
+
+    assertThat(stored).isFalse();
+    assertThat(cacheDirectory).isEmptyDirectory();
+    assertThat(cache.load("CHA", hashes, otherView)).isEmpty();
+  }
+
+  @Test
+  void hashClasses_coversJimpleFiles() throws Exception {
+    Path jimpleDirectory = jimpleDirectory();
+
+    Map<String, String> hashes = CallGraphCache.hashClasses(jimpleDirectory);
+
+    assertThat(hashes).containsOnlyKeys("JimpleTest.jimple");
+    assertThat(hashes.get("JimpleTest.jimple")).hasSize(64);
+  }
+
+  private static MethodSignature mainSignature(JimpleConvertingView view) {
+    return view.getIdentifierFactory()
+        .parseMethodSignature("<JimpleTest: void main(java.lang.String[])>");
+  }
+
+  private static JimpleConvertingView createView(Path jimpleDirectory) {
+    return new JimpleConvertingView(
+        new JimpleAnalysisInputLocation(
+            jimpleDirectory, SourceType.Application, Collections.emptyList()));
+  }
+
+  private Path jimpleDirectory() throws Exception {
+    return Path.of(
+            Objects.requireNonNull(getClass().getResource("/cognicrypt/jimple/JimpleTest.jimple"))
+                .toURI())
+        .getParent();
+  }
+}
@@ -4,16 +4,21 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import java.io.File;
 import java.net.URL;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.IntStream;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import sootup.core.inputlocation.AnalysisInputLocation;
 import sootup.core.model.SourceType;
 import sootup.core.types.ClassType;
 import sootup.java.bytecode.frontend.inputlocation.DefaultRuntimeAnalysisInputLocation;
 import sootup.java.core.JavaSootClass;
+import sootup.java.core.JavaSootClassSource;
+import sootup.java.core.JavaSootMethod;
 import sootup.java.core.views.JavaView;
 import sootup.jimple.frontend.JimpleAnalysisInputLocation;
 
@@ -144,6 +149,115 @@ class JimpleConvertingViewTest {
     assertThat(view.getClass(objectType)).isPresent();
   }
 
+  @Test
+  void warmUp_buildsApplicationClassesOnce() {
+    JimpleAnalysisInputLocation inputLocation = getAnalysisInputLocationForTestJimple();
+    JimpleConvertingView view = new JimpleConvertingView(inputLocation);
+
+    view.warmUp();
+
+    ClassType jimpleTestType = view.getIdentifierFactory().getClassType("JimpleTest");
+    JavaSootClass first = view.getClass(jimpleTestType).orElseThrow();
+    JavaSootClass second = view.getClass(jimpleTestType).orElseThrow();
+    assertThat(second).isSameAs(first);
+    assertThat(first.getMethods()).isNotEmpty();
+  }
+
+  @Test
+  void getClass_concurrentRequests_returnSameInstance() {
+    JimpleAnalysisInputLocation inputLocation = getAnalysisInputLocationForTestJimple();
+    JimpleConvertingView view = new JimpleConvertingView(inputLocation);
+    ClassType jimpleTestType = view.getIdentifierFactory().getClassType("JimpleTest");
+
+    List<JavaSootClass> classes =
+        IntStream.range(0, 16)
+            .parallel()
+            .mapToObj(i -> view.getClass(jimpleTestType).orElseThrow())
+            .toList();
+
+    assertThat(classes).allSatisfy(c -> assertThat(c).isSameAs(classes.get(0)));
+  }
+
+  @Test
+  void getClassSource_isMemoizedPerClassType() {
+    JimpleAnalysisInputLocation inputLocation = getAnalysisInputLocationForTestJimple();
+    JimpleConvertingView view = new JimpleConvertingView(inputLocation);
+    ClassType jimpleTestType = view.getIdentifierFactory().getClassType("JimpleTest");
+
+    JavaSootClassSource first = view.getClassSource(jimpleTestType).orElseThrow();
+    JavaSootClassSource second = view.getClassSource(jimpleTestType).orElseThrow();
+
+    assertThat(second).isSameAs(first);
+  }
+
+  @Test
+  void getBody_isInterceptedOnceOnDemand() throws Exception {
+    JimpleAnalysisInputLocation inputLocation = getAnalysisInputLocationForTestJimple();
+    JimpleConvertingView view = new JimpleConvertingView(inputLocation);
+    ClassType jimpleTestType = view.getIdentifierFactory().getClassType("JimpleTest");
+    JavaSootClass jimpleTestClass = view.getClass(jimpleTestType).orElseThrow();
+
+    JavaSootMethod main =
+        jimpleTestClass.getMethods().stream()
+            .filter(m -> m.getName().equals("main"))
+            .findFirst()
+            .orElseThrow();
+
+    assertThat(main.getBodySource().resolveBody(main.getModifiers()))
+        .isSameAs(main.getBodySource().resolveBody(main.getModifiers()));
+    assertThat(main.getBody().getStmts()).isNotEmpty();
+  }
+
+  @Test
+  void getApplicationClassTypes_listsIndexedClasses() {
+    JimpleAnalysisInputLocation inputLocation = getAnalysisInputLocationForTestJimple();
+    JimpleConvertingView view = new JimpleConvertingView(inputLocation);
+
+    assertThat(view.getApplicationClassTypes())
+        .containsExactly(view.getIdentifierFactory().getClassType("JimpleTest"));
+  }
+
+  @Test
+  void getClass_unknownType_isEmpty() {
+    JimpleAnalysisInputLocation inputLocation = getAnalysisInputLocationForTestJimple();
+    JimpleConvertingView view = new JimpleConvertingView(inputLocation);
+    ClassType unknownType = view.getIdentifierFactory().getClassType("com.example.Unknown");
+
+    assertThat(view.getClass(unknownType)).isEmpty();
+    assertThat(view.getClass(unknownType)).isEmpty();
+  }
+
+  @Test
+  void construction_doesNotBuildClasses() {
+    JimpleAnalysisInputLocation inputLocation = getAnalysisInputLocationForTestJimple();
+    JimpleConvertingView view = new JimpleConvertingView(inputLocation);
+
+    assertThat(view.getLoadedClassCount()).isZero();
+
+    view.getClass(view.getIdentifierFactory().getClassType("JimpleTest"));
+    assertThat(view.getLoadedClassCount()).isEqualTo(1);
+  }
+
+  @Test
+  void construction_indexesJimpleFilesWithoutParsing(@TempDir Path jimpleDirectory)
+      throws Exception {
+    Files.writeString(jimpleDirectory.resolve("com.example.Flat.jimple"), "not Jimple");
+    Files.createDirectories(jimpleDirectory.resolve("com/example"));
+    Files.writeString(jimpleDirectory.resolve("com/example/Nested.jimple"), "not Jimple");
+    Files.writeString(jimpleDirectory.resolve("com.example.Flat.jimple.map.json"), "{}");
+
+    JimpleConvertingView view =
+        new JimpleConvertingView(
+            new JimpleAnalysisInputLocation(
+                jimpleDirectory, SourceType.Application, Collections.emptyList()));
+
+    assertThat(view.getApplicationClassTypes())
+        .containsExactly(
+            view.getIdentifierFactory().getClassType("com.example.Flat"),
+            view.getIdentifierFactory().getClassType("com.example.Nested"));
+    assertThat(view.getLoadedClassCount()).isZero();
+  }
+
   private JimpleAnalysisInputLocation getAnalysisInputLocationForTestJimple() {
     URL resource = getClass().getResource("/cognicrypt/jimple/JimpleTest.jimple");
     assertThat(resource).isNotNull();
@@ -4,9 +4,15 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import de.fraunhofer.iem.scanner.ScannerSettings;
 import java.lang.reflect.Field;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import sootup.callgraph.CallGraph;
+import sootup.callgraph.RapidTypeAnalysisAlgorithm;
 import sootup.core.views.View;
 
 class JimpleFrameworkSetupTest {
@@ -32,6 +38,71 @@ class JimpleFrameworkSetupTest {
     assertThat(view.getClass(stringType)).isPresent();
   }
 
+  @Test
+  void initializeFramework_withCryptoApi_loadsOnlyCryptoRuntimeClasses() throws Exception {
+    var jimpleDirectory =
+        Path.of(
+                Objects.requireNonNull(
+                        getClass().getResource("/cognicrypt/jimple/JimpleTest.jimple"))
+                    .toURI())
+            .getParent()
+            .toString();
+    var setup =
+        new JimpleFrameworkSetup(
+            jimpleDirectory,
+            ScannerSettings.CallGraphAlgorithm.RTA,
+            null,
+            JdkMode.CRYPTO_API,
+            EntryPointStrategy.ALL_METHODS,
+            Set.of());
+
+    setup.initializeFramework();
+
+    var view = (View) getField(setup, "view");
+    var factory = view.getIdentifierFactory();
+
+    assertThat(view.getClass(factory.getClassType("javax.crypto.Cipher"))).isPresent();
+    assertThat(view.getClass(factory.getClassType("java.security.MessageDigest"))).isPresent();
+    assertThat(view.getClass(factory.getClassType("java.util.Random"))).isPresent();
+    assertThat(view.getClass(factory.getClassType("java.sql.Connection"))).isEmpty();
+    assertThat(view.getClass(factory.getClassType("java.util.ArrayList"))).isEmpty();
+  }
+
+  @Test
+  void createView_withCryptoApi_buildsCallGraphFromCryptoRuntimeClasses(@TempDir Path tempDir)
+      throws Exception {
+    Files.writeString(
+        tempDir.resolve("example.Main.jimple"),
+        """
+        public class example.Main extends java.lang.Object {
+            public static void main(java.lang.String[]) {
+                java.lang.String[] r0;
+                javax.crypto.Cipher r1;
+                byte[] r2;
+                r0 := @parameter0: java.lang.String[];
+                r1 = staticinvoke <javax.crypto.Cipher: javax.crypto.Cipher getInstance(java.lang.String)>("AES");
+                r2 = newarray (byte)[16];
+                virtualinvoke r1.<javax.crypto.Cipher: byte[] doFinal(byte[])>(r2);
+                return;
+            }
+        }
+        """);
+    var view = JimpleFrameworkSetup.createView(tempDir.toString(), JdkMode.CRYPTO_API);
+    var factory = view.getIdentifierFactory();
+    var main = factory.parseMethodSignature("<example.Main: void main(java.lang.String[])>");
+
+    CallGraph callGraph = new RapidTypeAnalysisAlgorithm(view).initialize(List.of(main));
+
+    assertThat(callGraph.containsMethod(main)).isTrue();
+    var hierarchy = view.getTypeHierarchy();
+    assertThat(hierarchy.contains(factory.getClassType("example.Main"))).isTrue();
+    assertThat(hierarchy.contains(factory.getClassType("javax.crypto.Cipher"))).isTrue();
+    assertThat(hierarchy.contains(factory.getClassType("java.util.ArrayList"))).isFalse();
+    assertThat(hierarchy.contains(factory.getClassType("java.sql.Connection"))).isFalse();
+    // The full runtime has tens of thousands of classes
+    assertThat(view.getLoadedClassCount()).isLessThan(5_000);
+  }
+
   private static Object getField(Object target, String fieldName) throws Exception {
     Field field = target.getClass().getDeclaredField(fieldName);
     field.setAccessible(true);
@@ -0,0 +1,100 @@
+package org.sonarcrypto.utils.cognicrypt.jimple;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import crysl.rule.CrySLRule;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sonarcrypto.utils.cognicrypt.crysl.CryslRuleProvider;
+import org.sonarcrypto.utils.cognicrypt.crysl.Ruleset;
+import sootup.core.model.SourceType;
+import sootup.jimple.frontend.JimpleAnalysisInputLocation;
+
+class ReferencedTypesTest {
+
+  private static final String CIPHER_CLIENT =
+      """
+      public class com.example.Main extends java.lang.Object
+      {
+          public void encrypt()
+          {
+              com.example.Main r0;
+              javax.crypto.Cipher $r1;
+              java.security.KeyStore$PasswordProtection $r2;
+
+              r0 := @this: com.example.Main;
+              staticinvoke <javax.crypto.Cipher: void check(java.lang.String)>("AES");
+              return;
+          }
+      }
+      """;
+
+  @Test
+  void of_findsTypesOfSignaturesAndLocals(@TempDir Path dir) throws Exception {
+    Files.createDirectories(dir.resolve("com/example"));
+    Files.writeString(dir.resolve("com/example/Main.jimple"), CIPHER_CLIENT);
+
+    var types = ReferencedTypes.of(createView(dir));
+
+    assertThat(types.contains("javax.crypto.Cipher")).isTrue();
+    assertThat(types.contains("java.lang.String")).isTrue();
+    assertThat(types.contains("java.security.KeyStore$PasswordProtection")).isTrue();
+    assertThat(types.contains("java.security.KeyStore.PasswordProtection")).isTrue();
+    assertThat(types.contains("javax.crypto.KeyGenerator")).isFalse();
+  }
+
+  @Test
+  void of_emptyDirectory_referencesNothing(@TempDir Path dir) {
+    assertThat(ReferencedTypes.of(createView(dir)).contains("javax.crypto.Cipher")).isFalse();
+  }
+
+  @Test
+  void retainWithDependencies_keepsRulesEnsuringRequiredPredicates() {
+    var cipher = new Rule("Cipher", Set.of("generatedKey"), Set.of("encrypted"));
+    var keyGenerator = new Rule("KeyGenerator", Set.of("randomized"), Set.of("generatedKey"));
+    var secureRandom = new Rule("SecureRandom", Set.of(), Set.of("randomized"));
+    var digest = new Rule("MessageDigest", Set.of(), Set.of("digested"));
+
+    List<Rule> retained =
+        ReferencedTypes.retainWithDependencies(
+            List.of(digest, secureRandom, keyGenerator, cipher),
+            rule -> rule.name().equals("Cipher"),
+            Rule::requires,
+            Rule::ensures);
+
+    assertThat(retained).containsExactly(secureRandom, keyGenerator, cipher);
+  }
+
+  @Test
+  void retainReferenced_keepsTheJcaRulesACipherDependsOn(@TempDir Path dir) throws Exception {
+    Files.createDirectories(dir.resolve("com/example"));
+    Files.writeString(dir.resolve("com/example/Main.jimple"), CIPHER_CLIENT);
+    var ruleset = new CryslRuleProvider().extractRulesetToTempDir(Ruleset.JCA);
+    var rules =
+        new JimpleScanner(dir.toString(), ruleset.rulesetZip().toString()).readAllRules();
+
+    var retained = ReferencedTypes.of(createView(dir)).retainReferenced(rules);
+
+    assertThat(retained)
+        .extracting(CrySLRule::getClassName)
+        .contains(
+            "javax.crypto.Cipher",
+            "javax.crypto.KeyGenerator",
+            "javax.crypto.spec.SecretKeySpec",
+            "java.security.SecureRandom");
+    assertThat(retained).hasSizeLessThan(rules.size());
+  }
+
+  private static JimpleConvertingView createView(Path jimpleDirectory) {
+    return new JimpleConvertingView(
+        new JimpleAnalysisInputLocation(
+            jimpleDirectory, SourceType.Application, Collections.emptyList()));
+  }
+
+  private record Rule(String name, Set<String> requires, Set<String> ensures) {}
+}
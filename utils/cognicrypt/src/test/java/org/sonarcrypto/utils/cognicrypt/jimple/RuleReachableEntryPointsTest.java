@@ -0,0 +1,217 @@
+package org.sonarcrypto.utils.cognicrypt.jimple;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Objects;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import sootup.core.model.SourceType;
+import sootup.java.core.JavaSootMethod;
+import sootup.jimple.frontend.JimpleAnalysisInputLocation;
+
+class RuleReachableEntryPointsTest {
+
+  @Test
+  void collect_keepsCallersOfRuleClasses() throws Exception {
+    var view = createView();
+
+    // Both constructors call java.lang.Object.<init>, main calls a constructor
+    Set<JavaSootMethod> entryPoints =
+        RuleReachableEntryPoints.collect(
+            view, view.getApplicationClassTypes(), Set.of("java.lang.Object"));
+
+    assertThat(entryPoints)
+        .extracting(JavaSootMethod::getName)
+        .containsExactlyInAnyOrder("<init>", "<init>", "main");
+  }
+
+  @Test
+  void collect_withoutRuleClassCalls_isEmpty() throws Exception {
+    var view = createView();
+
+    Set<JavaSootMethod> entryPoints =
+        RuleReachableEntryPoints.collect(
+            view, view.getApplicationClassTypes(), Set.of("javax.crypto.Cipher"));
+
+    assertThat(entryPoints).isEmpty();
+  }
+
+  @Test
+  void collect_keepsCallsDispatchedThroughTheRuleTypeHierarchy(@TempDir Path jimpleDirectory)
+      throws Exception {
+    // A key interface and a rule class implementing it, like Key and PrivateKey
+    write(
+        jimpleDirectory,
+        "example.Key",
+        """
+        public interface example.Key extends java.lang.Object
+        {
+        }
+        """);
+    write(
+        jimpleDirectory,
+        "example.RuleKey",
+        """
+        public class example.RuleKey extends java.lang.Object implements example.Key
+        {
+        }
+        """);
+    // A rule class and an application subclass of it, like MessageDigest
+    write(
+        jimpleDirectory,
+        "example.RuleDigest",
+        """
+        public class example.RuleDigest extends java.lang.Object
+        {
+            public void update()
+            {
+                example.RuleDigest this;
+                this := @this: example.RuleDigest;
+                return;
+            }
+        }
+        """);
+    write(
+        jimpleDirectory,
+        "example.AppDigest",
+        """
+        public class example.AppDigest extends example.RuleDigest
+        {
+        }
+        """);
+    write(
+        jimpleDirectory,
+        "example.Client",
+        """
+        public class example.Client extends java.lang.Object
+        {
+            public void sign(example.Key)
+            {
+                example.Client this;
+                example.Key r0;
+                this := @this: example.Client;
+                r0 := @parameter0: example.Key;
+                interfaceinvoke r0.<example.Key: void use()>();
+                return;
+            }
+
+            public void hash(example.AppDigest)
+            {
+                example.Client this;
+                example.AppDigest r0;
+                this := @this: example.Client;
+                r0 := @parameter0: example.AppDigest;
+                virtualinvoke r0.<example.AppDigest: void update()>();
+                return;
+            }
+
+            public void unrelated()
+            {
+                example.Client this;
+                this := @this: example.Client;
+                return;
+            }
+        }
+        """);
+    var view = createView(jimpleDirectory);
+
+    Set<JavaSootMethod> entryPoints =
+        RuleReachableEntryPoints.collect(
+            view, view.getApplicationClassTypes(), Set.of("example.RuleKey", "example.RuleDigest"));
+
+    assertThat(
+            RuleReachableEntryPoints.ruleTypeHierarchy(
+                view, view.getApplicationClassTypes(), Set.of("example.RuleKey")))
+        .containsExactlyInAnyOrder("example.RuleKey", "example.Key");
+    assertThat(entryPoints)
+        .extracting(JavaSootMethod::getName)
+        .contains("sign", "hash")
+        .doesNotContain("unrelated");
+  }
+
+  @Test
+  void collect_withoutJdk_keepsCallsDispatchedThroughJdkRuleTypes(@TempDir Path jimpleDirectory)
+      throws Exception {
+    write(
+        jimpleDirectory,
+        "example.AppRandom",
+        """
+        public class example.AppRandom extends java.security.SecureRandom
+        {
+        }
+        """);
+    write(
+        jimpleDirectory,
+        "example.Client",
+        """
+        public class example.Client extends java.lang.Object
+        {
+            public void encode(java.security.Key)
+            {
+                example.Client this;
+                java.security.Key r0;
+                this := @this: example.Client;
+                r0 := @parameter0: java.security.Key;
+                interfaceinvoke r0.<java.security.Key: byte[] getEncoded()>();
+                return;
+            }
+
+            public void random(example.AppRandom)
+            {
+                example.Client this;
+                example.AppRandom r0;
+                this := @this: example.Client;
+                r0 := @parameter0: example.AppRandom;
+                virtualinvoke r0.<example.AppRandom: int nextInt()>();
+                return;
+            }
+
+            public void unrelated()
+            {
+                example.Client this;
+                this := @this: example.Client;
+                return;
+            }
+        }
+        """);
+    var view = JimpleFrameworkSetup.createView(jimpleDirectory.toString(), JdkMode.EXCLUDE);
+    var ruleClassNames = Set.of("javax.crypto.spec.SecretKeySpec", "java.security.SecureRandom");
+
+    Set<JavaSootMethod> entryPoints =
+        RuleReachableEntryPoints.collect(view, view.getApplicationClassTypes(), ruleClassNames);
+
+    assertThat(
+            RuleReachableEntryPoints.ruleTypeHierarchy(
+                view, view.getApplicationClassTypes(), ruleClassNames))
+        .contains("javax.crypto.SecretKey", "java.security.Key", "example.AppRandom")
+        .doesNotContain("java.lang.Object", "example.Client");
+    assertThat(entryPoints)
+        .extracting(JavaSootMethod::getName)
+        .containsExactlyInAnyOrder("encode", "random");
+  }
+
+  private JimpleConvertingView createView() throws Exception {
+    return createView(
+        Path.of(
+                Objects.requireNonNull(
+                        getClass().getResource("/cognicrypt/jimple/JimpleTest.jimple"))
+                    .toURI())
+            .getParent());
+  }
+
+  private static JimpleConvertingView createView(Path jimpleDirectory) {
+    return new JimpleConvertingView(
+        new JimpleAnalysisInputLocation(
+            jimpleDirectory, SourceType.Application, Collections.emptyList()));
+  }
+
+  private static void write(Path jimpleDirectory, String className, String jimple)
+      throws IOException {
+    Files.writeString(jimpleDirectory.resolve(className + ".jimple"), jimple);
+  }
+}
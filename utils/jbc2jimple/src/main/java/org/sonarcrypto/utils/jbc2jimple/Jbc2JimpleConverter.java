@@ -15,6 +15,7 @@ import java.util.concurrent.Callable;
 import org.jspecify.annotations.NullMarked;
 import org.sonarcrypto.utils.jimple.mapper.LineMappingCollection;
 import org.sonarcrypto.utils.jimple.mapper.LineNumberMapper;
+import org.sonarcrypto.utils.jimple.mapper.MappingProfile;
 import org.sonarcrypto.utils.jimple.printer.JimplePrinter;
 import picocli.CommandLine;
 import picocli.CommandLine.Command;
@@ -27,8 +28,28 @@ import sootup.java.core.views.JavaView;
 @NullMarked
 public class Jbc2JimpleConverter {
 
+  private final MappingProfile mappingProfile;
+
   private Map<String, LineMappingCollection> lineMappings = new HashMap<>();
 
+  /**
+   * Creates a converter that writes compact mapping files with {@link
+   * MappingProfile#POSITIONS_ONLY}.
+   */
+  public Jbc2JimpleConverter() {
+    this(MappingProfile.POSITIONS_ONLY);
+  }
+
+  /**
+   * Creates a converter that writes mapping files with the given profile. Use {@link
+   * MappingProfile#RICH} to include the printed statements for debugging.
+   *
+   * @param mappingProfile The mapping profile.
+   */
+  public Jbc2JimpleConverter(MappingProfile mappingProfile) {
+    this.mappingProfile = mappingProfile;
+  }
+
   /**
    * Converts Java classes of the given class path into Jimple files that are written into the given
    * output directory.
@@ -68,7 +89,7 @@ public class Jbc2JimpleConverter {
       final String className = sootClass.getName();
 
       // Create a line number mapper for this class
-      final var lineNumberMapper = new LineNumberMapper(className);
+      final var lineNumberMapper = new LineNumberMapper(className, mappingProfile);
       final var jimplePrinter = new JimplePrinter(lineNumberMapper);
 
       // Write Jimple file
@@ -135,6 +156,12 @@ public class Jbc2JimpleConverter {
         required = false)
     private String outputPath = null;
 
+    @Option(
+        names = {"-mp", "--mappingProfile"},
+        description = "Sets the mapping profile (POSITIONS_ONLY or RICH)",
+        required = false)
+    private MappingProfile mappingProfile = MappingProfile.POSITIONS_ONLY;
+
     @Override
     public Integer call() {
       return 0;
@@ -152,6 +179,8 @@ public class Jbc2JimpleConverter {
    * -classPath /java/class/path -jimpleOutput /jimple/output/directory
    *
    * -cp /java/class/path        -jo /jimple/output/directory
+   *
+   * -cp /java/class/path        -jo /jimple/output/directory -mp RICH
    * </pre>
    */
   public static void main(String[] args) throws IOException {
@@ -166,11 +195,14 @@ public class Jbc2JimpleConverter {
 
     System.out.println("Java class path:         " + cliArgs.classPath);
     System.out.println("Jimple output directory: " + cliArgs.outputPath);
+    System.out.println("Mapping profile:         " + cliArgs.mappingProfile);
 
     System.out.println();
     System.out.println("Converting classes ...");
 
-    final var count = new Jbc2JimpleConverter().convert(cliArgs.classPath, cliArgs.outputPath);
+    final var count =
+        new Jbc2JimpleConverter(cliArgs.mappingProfile)
+            .convert(cliArgs.classPath, cliArgs.outputPath);
     System.out.println();
     System.out.println("Done. " + count + " class file(s) converted.");
   }
@@ -1,20 +1,24 @@
 package org.sonarcrypto.utils.jimple.mapper;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 import javax.annotation.Nullable;
 
 /**
  * Represents a single mapping entry from a Jimple line number to source code position. Designed
- * with a flat structure for protobuf compatibility.
+ * with a flat structure for protobuf compatibility. Absent optional values are omitted from the JSON
+ * output.
  */
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class LineMapping {
   private final int jimpleLine;
   private final ElementType elementType;
-  private final String elementSignature;
+  @Nullable private final String elementSignature;
   private final SourcePosition sourcePosition;
   @Nullable private final SourcePosition lhsPosition;
   @Nullable private final List<ArgumentMapping> argumentMappings;
@@ -22,7 +26,7 @@ public class LineMapping {
   public LineMapping(
       int jimpleLine,
       ElementType elementType,
-      String elementSignature,
+      @Nullable String elementSignature,
       SourcePosition sourcePosition) {
     this(jimpleLine, elementType, elementSignature, sourcePosition, null, null);
   }
@@ -31,7 +35,7 @@ public class LineMapping {
   public LineMapping(
       @JsonProperty("jimpleLine") int jimpleLine,
       @JsonProperty("elementType") ElementType elementType,
-      @JsonProperty("elementSignature") String elementSignature,
+      @JsonProperty("elementSignature") @Nullable String elementSignature,
       @JsonProperty("sourcePosition") SourcePosition sourcePosition,
       @JsonProperty("lhsPosition") @Nullable SourcePosition lhsPosition,
       @JsonProperty("argumentMappings") @Nullable List<ArgumentMapping> argumentMappings) {
@@ -54,6 +58,11 @@ public class LineMapping {
     return elementType;
   }
 
+  /**
+   * Signature of the mapped element, or null if it was not recorded, e.g., for statements mapped
+   * with {@link MappingProfile#POSITIONS_ONLY}.
+   */
+  @Nullable
   public String getElementSignature() {
     return elementSignature;
   }
@@ -101,7 +110,7 @@ public class LineMapping {
     LineMapping that = (LineMapping) o;
     return jimpleLine == that.jimpleLine
         && elementType == that.elementType
-        && elementSignature.equals(that.elementSignature)
+        && Objects.equals(elementSignature, that.elementSignature)
         && sourcePosition.equals(that.sourcePosition);
   }
 
@@ -109,7 +118,7 @@ public class LineMapping {
   public int hashCode() {
     int result = jimpleLine;
     result = 31 * result + elementType.hashCode();
-    result = 31 * result + elementSignature.hashCode();
+    result = 31 * result + Objects.hashCode(elementSignature);
     result = 31 * result + sourcePosition.hashCode();
     return result;
   }
@@ -11,15 +11,30 @@ import sootup.core.model.Position;
  */
 public class LineNumberMapper {
   private final String className;
+  private final MappingProfile profile;
   private final List<LineMapping> mappings;
   @Nullable private String sourceFileName;
 
   public LineNumberMapper(String className) {
+    this(className, MappingProfile.RICH);
+  }
+
+  public LineNumberMapper(String className, MappingProfile profile) {
     this.className = className;
+    this.profile = profile;
     this.mappings = new ArrayList<>();
     this.sourceFileName = null;
   }
 
+  /**
+   * Returns the profile controlling how much detail is recorded per statement.
+   *
+   * @return The mapping profile
+   */
+  public MappingProfile getProfile() {
+    return profile;
+  }
+
   /**
    * Sets the source file name for this class. Should be called once when the source file is known.
    *
@@ -69,12 +84,41 @@ public class LineNumberMapper {
    * Records a statement position mapping.
    *
    * @param jimpleLine The line number in the generated Jimple code
-   * @param stmtString The statement as string (for identification)
+   * @param stmtString The statement as string (for identification); ignored unless the profile is
+   *     {@link MappingProfile#RICH}
+   * @param position The position in the source code
+   */
+  public void recordStmtPosition(int jimpleLine, @Nullable String stmtString, Position position) {
+    recordStmtPosition(jimpleLine, stmtString, position, null, null);
+  }
+
+  /**
+   * Records a statement position mapping including the positions of the left-hand side and the
+   * arguments of the statement. Those are kept by every profile.
+   *
+   * @param jimpleLine The line number in the generated Jimple code
+   * @param stmtString The statement as string (for identification); ignored unless the profile is
+   *     {@link MappingProfile#RICH}
    * @param position The position in the source code
+   * @param lhsPosition The position of the left-hand side of an assignment, or null
+   * @param argumentMappings The positions of the arguments of a method call, or null
    */
-  public void recordStmtPosition(int jimpleLine, String stmtString, Position position) {
+  public void recordStmtPosition(
+      int jimpleLine,
+      @Nullable String stmtString,
+      Position position,
+      @Nullable SourcePosition lhsPosition,
+      @Nullable List<ArgumentMapping> argumentMappings) {
     SourcePosition sourcePos = convertPosition(position);
-    mappings.add(new LineMapping(jimpleLine, ElementType.STATEMENT, stmtString, sourcePos));
+    String signature = profile == MappingProfile.RICH ? stmtString : null;
+    mappings.add(
+        new LineMapping(
+            jimpleLine,
+            ElementType.STATEMENT,
+            signature,
+            sourcePos,
+            lhsPosition,
+            argumentMappings));
   }
 
   /**
@@ -0,0 +1,16 @@
+package org.sonarcrypto.utils.jimple.mapper;
+
+/** Enum controlling how much detail a {@link LineNumberMapper} records per statement. */
+public enum MappingProfile {
+  /**
+   * Records the printed statement as element signature for every statement. The resulting mapping
+   * files are considerably larger, but easier to read while debugging.
+   */
+  RICH,
+
+  /**
+   * Records only line and position data for statements, including argument and left-hand side
+   * positions when present. Class, method, and field signatures are still recorded.
+   */
+  POSITIONS_ONLY
+}
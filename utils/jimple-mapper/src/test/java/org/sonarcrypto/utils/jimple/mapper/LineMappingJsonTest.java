@@ -167,6 +167,29 @@ class LineMappingJsonTest {
     assertThat(second.getArgumentMappings()).isNull();
   }
 
+  @Test
+  void testPositionsOnlyJsonOmitsStatementSignature() throws IOException {
+    LineNumberMapper mapper =
+        new LineNumberMapper("com.example.TestClass", MappingProfile.POSITIONS_ONLY);
+    mapper.setSourceFileName("TestClass.java");
+    mapper.recordStmtPosition(
+        12, "$r0 := @this: com.example.TestClass", new FullPosition(11, 9, 11, 50));
+
+    String json = mapper.getCollection().toJson();
+
+    JsonNode mapping = new ObjectMapper().readTree(json).get("mappings").get(0);
+    assertThat(mapping.get("jimpleLine").asInt()).isEqualTo(12);
+    assertThat(mapping.get("elementType").asText()).isEqualTo("STATEMENT");
+    assertThat(mapping.has("elementSignature")).isFalse();
+    assertThat(mapping.has("lhsPosition")).isFalse();
+    assertThat(mapping.has("argumentMappings")).isFalse();
+
+    LineMappingCollection read = new ObjectMapper().readValue(json, LineMappingCollection.class);
+    assertThat(read.getMappings().get(0).getElementSignature()).isNull();
+    assertThat(read.getMappings().get(0).getSourcePosition())
+        .isEqualTo(new SourcePosition(11, 11, 9, 50));
+  }
+
   @Test
   void testJsonFormatIsPrettyPrinted() throws IOException {
     LineNumberMapper mapper = new LineNumberMapper("com.example.TestClass");
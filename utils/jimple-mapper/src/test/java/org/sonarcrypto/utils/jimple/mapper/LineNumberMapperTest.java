@@ -2,6 +2,7 @@ package org.sonarcrypto.utils.jimple.mapper;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.util.List;
 import org.junit.jupiter.api.Test;
 import sootup.core.jimple.basic.NoPositionInformation;
 import sootup.core.model.FullPosition;
@@ -111,6 +112,46 @@ class LineNumberMapperTest {
     assertThat(mapping.getArgumentMappings()).isNull();
   }
 
+  @Test
+  void testPositionsOnlyProfile_dropsStatementString() {
+    LineNumberMapper mapper =
+        new LineNumberMapper("com.example.TestClass", MappingProfile.POSITIONS_ONLY);
+    mapper.recordMethodPosition(
+        5, "<com.example.TestClass: void test()>", new FullPosition(15, 3, 25, 7));
+    mapper.recordStmtPosition(10, "x = 5", new FullPosition(18, 9, 18, 25));
+
+    LineMappingCollection collection = mapper.getCollection();
+    assertThat(collection.getMappings().get(0).getElementSignature())
+        .isEqualTo("<com.example.TestClass: void test()>");
+
+    LineMapping stmtMapping = collection.getMappings().get(1);
+    assertThat(stmtMapping.getJimpleLine()).isEqualTo(10);
+    assertThat(stmtMapping.getElementSignature()).isNull();
+    assertThat(stmtMapping.getSourcePosition()).isEqualTo(new SourcePosition(18, 18, 9, 25));
+  }
+
+  @Test
+  void testPositionsOnlyProfile_keepsLhsAndArgumentPositions() {
+    LineNumberMapper mapper =
+        new LineNumberMapper("com.example.TestClass", MappingProfile.POSITIONS_ONLY);
+    var lhsPos = new SourcePosition(18, 18, 9, 12);
+    var argMapping = new ArgumentMapping(1, new SourcePosition(18, 18, 20, 24));
+
+    mapper.recordStmtPosition(
+        10, "x = foo(bar)", new FullPosition(18, 9, 18, 25), lhsPos, List.of(argMapping));
+
+    LineMapping mapping = mapper.getCollection().getMappings().get(0);
+    assertThat(mapping.getElementSignature()).isNull();
+    assertThat(mapping.getLhsPosition()).isEqualTo(lhsPos);
+    assertThat(mapping.getArgumentMappings()).containsExactly(argMapping);
+  }
+
+  @Test
+  void testRichProfile_isDefault() {
+    assertThat(new LineNumberMapper("com.example.TestClass").getProfile())
+        .isEqualTo(MappingProfile.RICH);
+  }
+
   @Test
   void testToString_includesLhsAndArgumentMappingsWhenPresent() {
     var sourcePos = new SourcePosition(10, 10, 3, 20);
@@ -28,6 +28,7 @@ import java.util.function.Function;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 import org.sonarcrypto.utils.jimple.mapper.LineNumberMapper;
+import org.sonarcrypto.utils.jimple.mapper.MappingProfile;
 import sootup.core.graph.StmtGraph;
 import sootup.core.jimple.Jimple;
 import sootup.core.jimple.basic.Local;
@@ -447,9 +448,10 @@ public class JimplePrinter {
       // Record statement position
       Position stmtPosition = currentStmt.getPositionInfo().getStmtPosition();
       if (lineNumberMapper != null && !(stmtPosition instanceof NoPositionInformation)) {
+        // Only stringify the statement if the mapper keeps it
         lineNumberMapper.recordStmtPosition(
             getJimpleLnNum() - 1, // Previous line was the statement
-            currentStmt.toString(),
+            lineNumberMapper.getProfile() == MappingProfile.RICH ? currentStmt.toString() : null,
             stmtPosition);
       }
     }
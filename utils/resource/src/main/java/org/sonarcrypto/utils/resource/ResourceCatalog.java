@@ -0,0 +1,241 @@
+package org.sonarcrypto.utils.resource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.JarURLConnection;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import org.jspecify.annotations.NullMarked;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A cached index of the resources on the classpath.
+ *
+ * <p>Unlike {@link ResourceEnumerator}, which walks the classpath on every call, the catalog scans
+ * each classpath root (a directory or a JAR file) once, on first use, and indexes its resources by
+ * folder. Class files are not indexed. Later queries only look up the folders of the index, so
+ * repeated extractions from the same JAR do not open it again.
+ *
+ * <p>The roots are the locations of the queried top-level folder in the class loader and the
+ * entries of {@code java.class.path}. Use {@link #shared()} to share one catalog in the JVM.
+ */
+@NullMarked
+public final class ResourceCatalog {
+  private static final Logger LOGGER = LoggerFactory.getLogger(ResourceCatalog.class);
+
+  private static final int MAX_JAR_ENTRIES = 1_000_000;
+
+  private static final class Shared {
+    private static final ResourceCatalog INSTANCE =
+        new ResourceCatalog(ResourceCatalog.class.getClassLoader());
+  }
+
+  private final ClassLoader classLoader;
+  private final Map<String, List<String>> rootsByTopFolder = new ConcurrentHashMap<>();
+  private final Map<String, NavigableMap<String, List<String>>> indexesByRoot =
+      new ConcurrentHashMap<>();
+
+  ResourceCatalog(ClassLoader classLoader) {
+    this.classLoader = classLoader;
+  }
+
+  /** Returns the catalog of the class loader of this module, shared in the JVM. */
+  public static ResourceCatalog shared() {
+    return Shared.INSTANCE;
+  }
+
+  /**
+   * Lists the resources in a classpath folder and its subfolders.
+   *
+   * @param resourceFolder Path of the classpath folder, e.g. {@code crysl_rules/jca}.
+   * @param fileNameEndsWith File name ending to filter.
+   * @param filter A custom filter. Gets the file name without the value of {@code
+   *     fileNameEndsWith}.
+   * @return The classpath paths of the matched resources, in classpath order.
+   * @throws IOException An I/O error occurred while scanning a classpath root.
+   */
+  public List<Path> listResources(
+      final String resourceFolder, final String fileNameEndsWith, final Predicate<String> filter)
+      throws IOException {
+    final var prefix = normalizeDirectoryResourcePath(resourceFolder);
+    final var resources = new LinkedHashSet<Path>();
+
+    try {
+      for (final var root : roots(prefix)) {
+        final var index = indexesByRoot.computeIfAbsent(root, ResourceCatalog::indexRoot);
+
+        for (final var folder : index.tailMap(prefix, true).entrySet()) {
+          if (!folder.getKey().startsWith(prefix)) {
+            break;
+          }
+
+          for (final var name : folder.getValue()) {
+            if (!name.endsWith(fileNameEndsWith)) {
+              continue;
+            }
+            final var fileName = name.substring(name.lastIndexOf('/') + 1);
+            if (filter.test(fileName.substring(0, fileName.length() - fileNameEndsWith.length()))) {
+              resources.add(Path.of(name));
+            }
+          }
+        }
+      }
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+
+    return List.copyOf(resources);
+  }
+
+  /** Returns the number of classpath roots scanned so far. */
+  int indexedRootCount() {
+    return indexesByRoot.size();
+  }
+
+  private List<String> roots(String prefix) throws IOException {
+    final var topFolder = prefix.substring(0, prefix.indexOf('/'));
+    final var roots = new LinkedHashSet<>(classLoaderRoots(topFolder));
+
+    final var classPath = System.getProperty("java.class.path", "");
+    for (final var entry : classPath.split(java.io.File.pathSeparator)) {
+      if (entry.isBlank()) {
+        continue;
+      }
+
+      final var classPathEntry = Path.of(entry);
+      if (Files.isDirectory(classPathEntry)) {
+        roots.add(classPathEntry.toUri().toString());
+      } else if (Files.isRegularFile(classPathEntry) && entry.endsWith(".jar")) {
+        roots.add(jarRoot(classPathEntry.toUri()));
+      }
+    }
+
+    return List.copyOf(roots);
+  }
+
+  private List<String> classLoaderRoots(String topFolder) throws IOException {
+    try {
+      return rootsByTopFolder.computeIfAbsent(
+          topFolder,
+          folder -> {
+            try {
+              return findClassLoaderRoots(folder);
+            } catch (IOException e) {
+              throw new UncheckedIOException(e);
+            }
+          });
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
+  private List<String> findClassLoaderRoots(String topFolder) throws IOException {
+    final var roots = new ArrayList<String>();
+    final var resourceUrls = classLoader.getResources(topFolder);
+
+    while (resourceUrls.hasMoreElements()) {
+      final var resourceUrl = resourceUrls.nextElement();
+      final var protocol = resourceUrl.getProtocol();
+
+      try {
+        if ("file".equals(protocol)) {
+          roots.add(Paths.get(resourceUrl.toURI()).getParent().toUri().toString());
+        } else if ("jar".equals(protocol)) {
+          final var jarFileUrl = ((JarURLConnection) resourceUrl.openConnection()).getJarFileURL();
+          roots.add(
+              "file".equals(jarFileUrl.getProtocol())
+                  ? jarRoot(Paths.get(jarFileUrl.toURI()).toUri())
+                  : "jar:" + jarFileUrl + "!/");
+        } else {
+          throw new IOException("Unsupported protocol: " + protocol);
+        }
+      } catch (URISyntaxException e) {
+        throw new IOException("Invalid resource URL: " + resourceUrl, e);
+      }
+    }
+
+    return roots;
+  }
+
+  private static String jarRoot(URI jarFile) {
+    return "jar:" + jarFile + "!/";
+  }
+
+  private static NavigableMap<String, List<String>> indexRoot(String root) {
+    LOGGER.debug("Indexing resources of {}", root);
+    final var index = new TreeMap<String, List<String>>();
+
+    try {
+      if (root.startsWith("jar:")) {
+        indexJar(root, index);
+      } else {
+        indexDirectory(Paths.get(URI.create(root)), index);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+
+    return Collections.unmodifiableNavigableMap(index);
+  }
+
+  private static void indexJar(String root, Map<String, List<String>> index) throws IOException {
+    final var connection = (JarURLConnection) URI.create(root).toURL().openConnection();
+    connection.setUseCaches(false);
+
+    try (final var jarFile = connection.getJarFile()) {
+      final var entries = jarFile.entries();
+      var processedEntries = 0;
+
+      while (entries.hasMoreElements()) {
+        if (++processedEntries > MAX_JAR_ENTRIES) {
+          LOGGER.error("Too many entries in JAR file: Stopped after {} entries!", MAX_JAR_ENTRIES);
+          break;
+        }
+
+        final var entry = entries.nextElement();
+        if (!entry.isDirectory()) {
+          addResource(entry.getName(), index);
+        }
+      }
+    }
+  }
+
+  private static void indexDirectory(Path root, Map<String, List<String>> index)
+      throws IOException {
+    try (final var pathStream = Files.walk(root)) {
+      pathStream
+          .filter(Files::isRegularFile)
+          .forEach(
+              file -> addResource(root.relativize(file).toString().replace('\\', '/'), index));
+    }
+  }
+
+  private static void addResource(String name, Map<String, List<String>> index) {
+    if (name.endsWith(".class") || name.endsWith(".gitkeep")) {
+      return;
+    }
+    final var folder = name.substring(0, name.lastIndexOf('/') + 1);
+    index.computeIfAbsent(folder, ignored -> new ArrayList<>()).add(name);
+  }
+
+  private static String normalizeDirectoryResourcePath(String resourceFolder) {
+    var resourcePath = resourceFolder.replace('\\', '/');
+    if (!resourcePath.endsWith("/")) {
+      resourcePath += "/";
+    }
+    return resourcePath;
+  }
+}
@@ -14,7 +14,8 @@ import org.jspecify.annotations.NullMarked;
 @NullMarked
 public class ResourceExtractor {
   /**
-   * Extracts files from resources into a target directory.
+   * Extracts files from resources into a target directory. The resources are looked up in the
+   * {@linkplain ResourceCatalog#shared() shared resource catalog}.
    *
    * @param resourceFolder The resource folder.
    * @param targetFolder The target folder.
@@ -32,14 +33,14 @@ public class ResourceExtractor {
       throws IOException, URISyntaxException {
     final var collectedTargetPaths = new ArrayList<Path>();
     final var resourcePaths =
-        new ResourceEnumerator().listResources(Path.of(resourceFolder), fileEnding, filter);
+        ResourceCatalog.shared().listResources(resourceFolder, fileEnding, filter);
+    // Use class loader to access resources, because it does not need absolute paths; see
+    // <https://stackoverflow.com/questions/51645295/how-to-specify-the-path-for-getresourceasstream-method-in-java>
+    final var classLoader = ResourceExtractor.class.getClassLoader();
 
     for (final var resourcePath : resourcePaths) {
-      // Use class loader to access resources, because it does not need absolute paths; see
-      // <https://stackoverflow.com/questions/51645295/how-to-specify-the-path-for-getresourceasstream-method-in-java>
       // ClassLoader.getResourceAsStream() requires forward slashes on all platforms, but
       // Path.toString() uses the OS separator (backslash on Windows), so we normalize here.
-      final var classLoader = ResourceExtractor.class.getClassLoader();
       final var resourceAsString = resourcePath.toString().replace('\\', '/');
 
       try (var resourceStream = classLoader.getResourceAsStream(resourceAsString)) {
@@ -0,0 +1,72 @@
+package org.sonarcrypto.utils.resource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import org.junit.jupiter.api.Test;
+
+public class ResourceCatalogTest {
+
+  private final ResourceCatalog catalog =
+      new ResourceCatalog(ResourceCatalogTest.class.getClassLoader());
+
+  @Test
+  void testListResourcesFromFiles() throws Exception {
+    final var list =
+        catalog.listResources(
+            "crysl_rules", ".zip", s -> "test_rules1".equals(s) || "test_rules2".equals(s));
+
+    assertThat(list)
+        .containsExactlyInAnyOrder(
+            Path.of("crysl_rules/test_rules1.zip"), Path.of("crysl_rules/test_rules2.zip"));
+  }
+
+  @Test
+  void testListResourcesScansEachRootOnce() throws Exception {
+    catalog.listResources("crysl_rules", ".zip", ignored -> true);
+    final var indexedRoots = catalog.indexedRootCount();
+
+    final var list = catalog.listResources("crysl_rules", ".jar", ignored -> true);
+
+    assertThat(list).isEmpty();
+    assertThat(catalog.indexedRootCount()).isEqualTo(indexedRoots);
+  }
+
+  @Test
+  void testListResourcesSkipsOtherFoldersAndGitkeep() throws Exception {
+    assertThat(catalog.listResources("crysl_rules/dir", "", ignored -> true)).isEmpty();
+    assertThat(catalog.listResources("crysl", ".zip", ignored -> true)).isEmpty();
+  }
+
+  @Test
+  void testListResourcesWithinAJarFromClasspath() throws Exception {
+    final var jarFile = Files.createTempFile("resource-catalog", ".jar");
+    try (var outputStream = new JarOutputStream(Files.newOutputStream(jarFile))) {
+      outputStream.putNextEntry(new JarEntry("jar_only_rules/"));
+      outputStream.closeEntry();
+      outputStream.putNextEntry(new JarEntry("jar_only_rules/nested/sample.zip"));
+      outputStream.write(new byte[] {1});
+      outputStream.closeEntry();
+      outputStream.putNextEntry(new JarEntry("jar_only_rules/Sample.class"));
+      outputStream.write(new byte[] {1});
+      outputStream.closeEntry();
+    }
+
+    final var originalClassPath = System.getProperty("java.class.path");
+    System.setProperty(
+        "java.class.path", originalClassPath + File.pathSeparator + jarFile.toAbsolutePath());
+
+    try {
+      assertThat(catalog.listResources("jar_only_rules", ".zip", "sample"::equals))
+          .containsExactly(Path.of("jar_only_rules/nested/sample.zip"));
+      assertThat(catalog.listResources("jar_only_rules", ".class", ignored -> true)).isEmpty();
+    } finally {
+      System.setProperty("java.class.path", originalClassPath);
+      Files.deleteIfExists(jarFile);
+    }
+  }
+}
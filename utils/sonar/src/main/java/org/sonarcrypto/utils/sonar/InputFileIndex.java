@@ -0,0 +1,101 @@
+package org.sonarcrypto.utils.sonar;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+import org.sonar.api.batch.fs.FilePredicates;
+import org.sonar.api.batch.fs.FileSystem;
+import org.sonar.api.batch.fs.InputFile;
+
+/**
+ * Resolves fully qualified class names to the main Java input files declaring them.
+ *
+ * <p>The input files are queried once and indexed by file name, so that resolving a class is a map
+ * lookup followed by a package check on the few files with that name, instead of a path pattern
+ * query over the whole file system.
+ *
+ * <p>Nested classes ({@code Outer$Inner}) resolve to the file of their top-level class. Top-level
+ * classes declared in a file of a different name (non-public classes) can only be resolved if the
+ * source file name is known, e.g. from the line mappings of the class.
+ */
+@NullMarked
+public class InputFileIndex {
+  private static final String JAVA_EXTENSION = ".java";
+
+  private final Map<String, List<InputFile>> filesByName = new HashMap<>();
+
+  private InputFileIndex(Iterable<InputFile> inputFiles) {
+    for (InputFile inputFile : inputFiles) {
+      filesByName.computeIfAbsent(inputFile.filename(), name -> new ArrayList<>()).add(inputFile);
+    }
+  }
+
+  /**
+   * Indexes the main Java input files of a file system.
+   *
+   * @param fileSystem the file system
+   * @return the index
+   */
+  public static InputFileIndex of(FileSystem fileSystem) {
+    FilePredicates predicates = fileSystem.predicates();
+    return new InputFileIndex(
+        fileSystem.inputFiles(
+            predicates.and(
+                predicates.hasType(InputFile.Type.MAIN), predicates.hasLanguage("java"))));
+  }
+
+  /**
+   * Finds the input file declaring a class.
+   *
+   * @param fullyQualifiedName the fully qualified name of the class, e.g. {@code
+   *     com.example.Outer$Inner}
+   * @return the input file, or null if not found
+   */
+  @Nullable
+  public InputFile find(String fullyQualifiedName) {
+    return find(fullyQualifiedName, null);
+  }
+
+  /**
+   * Finds the input file declaring a class.
+   *
+   * @param fullyQualifiedName the fully qualified name of the class, e.g. {@code
+   *     com.example.Outer$Inner}
+   * @param sourceFileName the name of the source file declaring the class, e.g. {@code
+   *     Outer.java}, used if no file is named after the class; may be null if unknown
+   * @return the input file, or null if not found
+   */
+  @Nullable
+  public InputFile find(String fullyQualifiedName, @Nullable String sourceFileName) {
+    int lastDot = fullyQualifiedName.lastIndexOf('.');
+    String packagePath =
+        lastDot < 0 ? "" : fullyQualifiedName.substring(0, lastDot).replace('.', '/') + "/";
+    String simpleName = fullyQualifiedName.substring(lastDot + 1);
+    int dollar = simpleName.indexOf('$');
+    String topLevelName = dollar < 0 ? simpleName : simpleName.substring(0, dollar);
+
+    InputFile inputFile = findInPackage(packagePath, topLevelName + JAVA_EXTENSION);
+    if (inputFile == null && sourceFileName != null) {
+      inputFile = findInPackage(packagePath, sourceFileName);
+    }
+    return inputFile;
+  }
+
+  @Nullable
+  private InputFile findInPackage(String packagePath, String fileName) {
+    List<InputFile> candidates = filesByName.get(fileName);
+    if (candidates == null) {
+      return null;
+    }
+    String suffix = "/" + packagePath + fileName;
+    for (InputFile candidate : candidates) {
+      if (candidate.uri().getPath().endsWith(suffix)) {
+        return candidate;
+      }
+    }
+    return null;
+  }
+}
@@ -0,0 +1,128 @@
+package org.sonarcrypto.utils.sonar;
+
+import java.io.IOException;
+import org.jspecify.annotations.NullMarked;
+import org.sonar.api.batch.fs.InputFile;
+
+/**
+ * Start offsets, lengths and indentation widths of the lines of a file, computed in a single pass
+ * over its contents.
+ *
+ * <p>Lines are numbered from 1 and split like SonarQube does: at {@code \n}, {@code \r\n} and
+ * {@code \r}, with an empty last line after a trailing line break. Hence, a range is accepted by
+ * {@link InputFile#newRange(int, int, int, int)} if and only if it is {@link #isValidRange valid}
+ * for the table of the file.
+ */
+@NullMarked
+public final class LineTable {
+  private final int[] lineStarts;
+  private final int[] lineLengths;
+  private final int[] indentations;
+
+  private LineTable(String contents) {
+    final var length = contents.length();
+
+    var lineCount = 1;
+    for (var i = 0; i < length; i++) {
+      final var c = contents.charAt(i);
+      if (c == '\n' || (c == '\r' && (i + 1 == length || contents.charAt(i + 1) != '\n'))) {
+        lineCount++;
+      }
+    }
+
+    lineStarts = new int[lineCount];
+    lineLengths = new int[lineCount];
+    indentations = new int[lineCount];
+
+    var line = 0;
+    var start = 0;
+    for (var i = 0; i < length; i++) {
+      final var c = contents.charAt(i);
+      if (c == '\n' || c == '\r') {
+        addLine(contents, line++, start, i);
+        if (c == '\r' && i + 1 < length && contents.charAt(i + 1) == '\n') {
+          i++;
+        }
+        start = i + 1;
+      }
+    }
+    addLine(contents, line, start, length);
+  }
+
+  private void addLine(String contents, int index, int start, int end) {
+    var indentation = 0;
+    while (start + indentation < end
+        && Character.isWhitespace(contents.charAt(start + indentation))) {
+      indentation++;
+    }
+    lineStarts[index] = start;
+    lineLengths[index] = end - start;
+    indentations[index] = indentation;
+  }
+
+  /** Computes the line table of the given text. */
+  public static LineTable of(String contents) {
+    return new LineTable(contents);
+  }
+
+  /**
+   * Reads the contents of an input file and computes its line table.
+   *
+   * @throws IOException if the file cannot be read
+   */
+  public static LineTable of(InputFile inputFile) throws IOException {
+    return new LineTable(inputFile.contents());
+  }
+
+  /** Returns the number of lines, including an empty last line after a trailing line break. */
+  public int lineCount() {
+    return lineStarts.length;
+  }
+
+  /** Returns the offset of the first character of a line (1-based) in the contents. */
+  public int lineStart(int line) {
+    return lineStarts[checkLine(line)];
+  }
+
+  /** Returns the length of a line (1-based), excluding the line break. */
+  public int lineLength(int line) {
+    return lineLengths[checkLine(line)];
+  }
+
+  /** Returns the number of leading whitespace characters of a line (1-based). */
+  public int indentation(int line) {
+    return indentations[checkLine(line)];
+  }
+
+  /** Checks whether a line number refers to a line of the table. */
+  public boolean isValidLine(int line) {
+    return line >= 1 && line <= lineCount();
+  }
+
+  /**
+   * Checks whether a range lies within the lines of the table and its start is before its end.
+   *
+   * @param startLine the start line (1-based)
+   * @param startLineOffset the start offset in the start line (0-based)
+   * @param endLine the end line (1-based)
+   * @param endLineOffset the end offset in the end line (0-based, exclusive)
+   * @return {@code true} if the range is valid
+   */
+  public boolean isValidRange(int startLine, int startLineOffset, int endLine, int endLineOffset) {
+    return isValidLine(startLine)
+        && isValidLine(endLine)
+        && startLineOffset >= 0
+        && startLineOffset <= lineLength(startLine)
+        && endLineOffset >= 0
+        && endLineOffset <= lineLength(endLine)
+        && (startLine < endLine || (startLine == endLine && startLineOffset < endLineOffset));
+  }
+
+  private int checkLine(int line) {
+    if (!isValidLine(line)) {
+      throw new IndexOutOfBoundsException(
+          "Line " + line + " is not in range [1, " + lineCount() + "]");
+    }
+    return line - 1;
+  }
+}
@@ -0,0 +1,109 @@
+package org.sonarcrypto.utils.sonar;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.batch.fs.internal.TestInputFileBuilder;
+import org.sonar.api.batch.sensor.internal.SensorContextTester;
+
+public class InputFileIndexTest {
+  @TempDir Path tempDir;
+  private SensorContextTester sensorContext;
+
+  @BeforeEach
+  void setUp() {
+    sensorContext = SensorContextTester.create(tempDir);
+  }
+
+  @Test
+  void find_returns_file_for_matching_class() throws IOException {
+    addJavaFile("com/example/MyClass.java", InputFile.Type.MAIN);
+
+    InputFile result = index().find("com.example.MyClass");
+
+    assertThat(result).isNotNull();
+    assertThat(result.filename()).isEqualTo("MyClass.java");
+  }
+
+  @Test
+  void find_distinguishes_packages() throws IOException {
+    addJavaFile("com/example/a/Helper.java", InputFile.Type.MAIN);
+    addJavaFile("com/example/b/Helper.java", InputFile.Type.MAIN);
+
+    InputFile result = index().find("com.example.b.Helper");
+
+    assertThat(result).isNotNull();
+    assertThat(result.uri().getPath()).endsWith("com/example/b/Helper.java");
+  }
+
+  @Test
+  void find_requires_matching_file_name_and_package() throws IOException {
+    addJavaFile("com/example/MyClass.java", InputFile.Type.MAIN);
+
+    assertThat(index().find("com.example.Class")).isNull();
+    assertThat(index().find("other.MyClass")).isNull();
+  }
+
+  @Test
+  void find_resolves_nested_class_to_top_level_file() throws IOException {
+    addJavaFile("com/example/Outer.java", InputFile.Type.MAIN);
+
+    InputFile result = index().find("com.example.Outer$Inner$1");
+
+    assertThat(result).isNotNull();
+    assertThat(result.filename()).isEqualTo("Outer.java");
+  }
+
+  @Test
+  void find_uses_source_file_name_for_non_public_class() throws IOException {
+    addJavaFile("com/example/Main.java", InputFile.Type.MAIN);
+
+    assertThat(index().find("com.example.Helper")).isNull();
+    InputFile result = index().find("com.example.Helper", "Main.java");
+
+    assertThat(result).isNotNull();
+    assertThat(result.filename()).isEqualTo("Main.java");
+  }
+
+  @Test
+  void find_resolves_class_in_default_package() throws IOException {
+    addJavaFile("Main.java", InputFile.Type.MAIN);
+
+    assertThat(index().find("Main")).isNotNull();
+  }
+
+  @Test
+  void find_ignores_test_files() throws IOException {
+    addJavaFile("com/example/TestClass.java", InputFile.Type.TEST);
+
+    assertThat(index().find("com.example.TestClass")).isNull();
+  }
+
+  private InputFileIndex index() {
+    return InputFileIndex.of(sensorContext.fileSystem());
+  }
+
+  private void addJavaFile(String relativePath, InputFile.Type type) throws IOException {
+    Path srcDir = tempDir.resolve(type == InputFile.Type.MAIN ? "src/main/java" : "src/test/java");
+    Path javaFile = srcDir.resolve(relativePath);
+    Files.createDirectories(javaFile.getParent());
+    String content = "class " + javaFile.getFileName().toString().replace(".java", "") + " {}";
+    Files.writeString(javaFile, content);
+
+    InputFile inputFile =
+        TestInputFileBuilder.create("mod", tempDir.toFile(), javaFile.toFile())
+            .setLanguage("java")
+            .setType(type)
+            .setCharset(StandardCharsets.UTF_8)
+            .setContents(content)
+            .build();
+    sensorContext.fileSystem().add(inputFile);
+  }
+}
@@ -0,0 +1,84 @@
+package org.sonarcrypto.utils.sonar;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.batch.fs.internal.TestInputFileBuilder;
+
+public class LineTableTest {
+  @TempDir Path tempDir;
+
+  @Test
+  void of_splits_lines_at_all_line_breaks() {
+    LineTable table = LineTable.of("a\n  bc\r\n\r\tdef");
+
+    assertThat(table.lineCount()).isEqualTo(4);
+    assertThat(table.lineStart(1)).isZero();
+    assertThat(table.lineLength(1)).isEqualTo(1);
+    assertThat(table.lineStart(2)).isEqualTo(2);
+    assertThat(table.lineLength(2)).isEqualTo(4);
+    assertThat(table.indentation(2)).isEqualTo(2);
+    assertThat(table.lineLength(3)).isZero();
+    assertThat(table.lineStart(4)).isEqualTo(9);
+    assertThat(table.lineLength(4)).isEqualTo(4);
+    assertThat(table.indentation(4)).isEqualTo(1);
+  }
+
+  @Test
+  void of_counts_empty_line_after_trailing_line_break() {
+    LineTable table = LineTable.of("a\n");
+
+    assertThat(table.lineCount()).isEqualTo(2);
+    assertThat(table.lineLength(2)).isZero();
+  }
+
+  @Test
+  void indentation_of_blank_line_is_its_length() {
+    assertThat(LineTable.of("   ").indentation(1)).isEqualTo(3);
+  }
+
+  @Test
+  void line_accessors_reject_lines_out_of_range() {
+    LineTable table = LineTable.of("a");
+
+    assertThatThrownBy(() -> table.lineLength(0)).isInstanceOf(IndexOutOfBoundsException.class);
+    assertThatThrownBy(() -> table.lineLength(2)).isInstanceOf(IndexOutOfBoundsException.class);
+  }
+
+  @Test
+  void is_valid_range_matches_input_file() throws IOException {
+    String content = "package com.example;\npublic class Foo {}\n";
+    InputFile inputFile = inputFile(content);
+    LineTable table = LineTable.of(inputFile);
+
+    assertThat(table.lineCount()).isEqualTo(inputFile.lines());
+    assertThat(table.isValidRange(1, 0, 1, 20)).isTrue();
+    assertThat(table.isValidRange(1, 5, 2, 0)).isTrue();
+    inputFile.newRange(1, 5, 2, 0);
+
+    assertThat(table.isValidRange(1, 0, 1, 21)).isFalse();
+    assertThat(table.isValidRange(1, 5, 1, 5)).isFalse();
+    assertThat(table.isValidRange(2, 0, 1, 3)).isFalse();
+    assertThat(table.isValidRange(0, 0, 1, 3)).isFalse();
+    assertThat(table.isValidRange(1, 0, 4, 0)).isFalse();
+    assertThat(table.isValidRange(1, -1, 1, 3)).isFalse();
+  }
+
+  private InputFile inputFile(String content) throws IOException {
+    Path javaFile = tempDir.resolve("Foo.java");
+    Files.writeString(javaFile, content);
+    return TestInputFileBuilder.create("mod", tempDir.toFile(), javaFile.toFile())
+        .setLanguage("java")
+        .setType(InputFile.Type.MAIN)
+        .setCharset(StandardCharsets.UTF_8)
+        .setContents(content)
+        .build();
+  }
+}